@@ -0,0 +1,33 @@
+#!/bin/sh
+# 啟動器：以精簡的 revenue-launcher.jar（mvn -Plauncher package）執行收益計算，並使用 AppCDS 類別資料共享封存
+#
+# 第一次執行（或 jar 比封存新）時以 -XX:ArchiveClassesAtExit 把這次載入的類別寫成封存，
+# 之後以 -XX:SharedArchiveFile 直接對映已解析的類別，省下讀 jar、解析與驗證類別的時間。
+# 短命的命令列呼叫只用 C1 編譯器與 Serial GC，啟動與結束都較快；
+# 並以 -Drevenue.jfr=false 關閉自訂 JFR 事件，避免載入 JFR 事件框架（需要錄製時在 JAVA_OPTS 加上 -Drevenue.jfr=true）。
+#
+#   REVENUE_JAR   啟動器 jar（預設 target/revenue-launcher.jar）
+#   REVENUE_CDS   封存檔（預設與 jar 同目錄的 revenue-launcher.jsa）
+#   REVENUE_MAIN  主類別（預設 org.example.PostseasonRevenue3）
+#   JAVA_OPTS     額外的 JVM 參數
+set -e
+
+JAR=${REVENUE_JAR:-target/revenue-launcher.jar}
+CDS=${REVENUE_CDS:-${JAR%.jar}.jsa}
+MAIN=${REVENUE_MAIN:-org.example.PostseasonRevenue3}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+if [ ! -f "$JAR" ]; then
+    echo "找不到啟動器 jar: $JAR（請先執行 mvn -Plauncher package）" >&2
+    exit 1
+fi
+
+if [ -f "$CDS" ] && [ ! "$JAR" -nt "$CDS" ]; then
+    SHARE="-XX:SharedArchiveFile=$CDS -Xshare:auto"
+else
+    rm -f "$CDS"
+    SHARE="-XX:ArchiveClassesAtExit=$CDS"
+fi
+
+# shellcheck disable=SC2086
+exec "$JAVA" -XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Drevenue.jfr=false $SHARE $JAVA_OPTS -cp "$JAR" "$MAIN" "$@"
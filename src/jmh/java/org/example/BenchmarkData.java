@@ -0,0 +1,58 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// 效能測試資料產生器：以固定種子產生球隊與情境，確保每次量測資料相同
+final class BenchmarkData {
+    private static final long SEED = 20241003L;
+
+    private BenchmarkData() {
+    }
+
+    static List<Team3> teams(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Team3> teams = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            teams.add(new Team3("T" + i + " 測試球隊" + i, "Stadium " + i + " 測試球場",
+                    30000 + random.nextInt(26000), 0.9 + random.nextDouble() * 0.1, 0.95 + random.nextDouble() * 0.05));
+        }
+        return teams;
+    }
+
+    static RevenueScenarios scenarios(int count) {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        RevenueScenarios scenarios = new RevenueScenarios();
+        for (int i = 0; i < count; i++) {
+            boolean worldSeries = random.nextBoolean();
+            scenarios.add("scenario " + i, random.nextInt(11), random.nextInt(11),
+                    worldSeries ? random.nextInt(5) : 0, worldSeries ? random.nextInt(4) : 0);
+        }
+        return scenarios;
+    }
+
+    // 寫出 teams.json 格式（ndjson 為 true 時每行一筆）
+    static void writeJson(List<Team3> teams, Path path, boolean ndjson) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (!ndjson) {
+                writer.write("[\n");
+            }
+            for (int i = 0; i < teams.size(); i++) {
+                Team3 team = teams.get(i);
+                writer.write("{\"name\": \"" + team.name + "\", \"stadium\": \"" + team.stadium
+                        + "\", \"capacity\": " + team.capacity + ", \"playoffFillRate\": " + team.playoffFillRate
+                        + ", \"worldSeriesFillRate\": " + team.worldSeriesFillRate + "}");
+                writer.write(!ndjson && i < teams.size() - 1 ? ",\n" : "\n");
+            }
+            if (!ndjson) {
+                writer.write("]\n");
+            }
+        }
+    }
+}
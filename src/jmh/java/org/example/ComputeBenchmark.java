@@ -0,0 +1,81 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 計算效能：PostseasonRevenue3.calculateRevenue 逐格呼叫與批次收益核心（球隊數 × 情境數）
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComputeBenchmark {
+    @Param({"11", "1000"})
+    int teamCount;
+
+    @Param({"4", "64"})
+    int scenarioCount;
+
+    private PostseasonRevenue3 revenue;
+    private List<Team3> teams;
+    private TeamTable table;
+    private RevenueScenarios scenarios;
+    private double[] playoff;
+    private double[] worldSeries;
+    private double[] out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        revenue = new PostseasonRevenue3(PostseasonRevenue3.loadProperties());
+        teams = BenchmarkData.teams(teamCount);
+        table = TeamTable.fromTeams(teams);
+        scenarios = BenchmarkData.scenarios(scenarioCount);
+        playoff = new double[scenarioCount];
+        worldSeries = new double[scenarioCount];
+        RevenueKernel.coefficients(scenarios, 450, 800, 0.85, 0.15, playoff, worldSeries);
+        out = new double[teamCount * scenarioCount];
+    }
+
+    @Benchmark
+    public void calculateRevenue(Blackhole blackhole) {
+        for (Team3 team : teams) {
+            for (int s = 0; s < scenarios.size(); s++) {
+                blackhole.consume(revenue.calculateRevenue(team, scenarios.playoffHome(s), scenarios.playoffAway(s), false)
+                        + revenue.calculateRevenue(team, scenarios.worldSeriesHome(s), scenarios.worldSeriesAway(s), true));
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] calculateAll() {
+        return revenue.calculateAll(table, scenarios);
+    }
+
+    @Benchmark
+    public double[] scalarKernel() {
+        RevenueKernel.scalar().compute(table, playoff, worldSeries, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] bestKernel() {
+        RevenueKernel.best().compute(table, playoff, worldSeries, out);
+        return out;
+    }
+}
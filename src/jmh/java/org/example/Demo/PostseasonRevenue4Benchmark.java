@@ -0,0 +1,95 @@
+package org.example.Demo;
+
+import org.example.RevenueTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// PostseasonRevenue4 主客場收益計算效能（球隊數 × 情境數，每個情境各算一次主場與客場）
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostseasonRevenue4Benchmark {
+    @Param({"11", "1000"})
+    int teamCount;
+
+    @Param({"4", "64"})
+    int scenarioCount;
+
+    private PostseasonRevenue4 revenue;
+    private List<Team4> teams;
+    private int[] games;
+    private boolean[] worldSeries;
+    private RevenueTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Properties props = new Properties();
+        try (InputStream input = PostseasonRevenue4Benchmark.class.getClassLoader().getResourceAsStream("config.properties")) {
+            props.load(input);
+        }
+        revenue = new PostseasonRevenue4(props);
+        SplittableRandom random = new SplittableRandom(20241003L);
+        teams = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(new Team4("T" + i, "Stadium " + i, 30000 + random.nextInt(26000),
+                    0.9 + random.nextDouble() * 0.1, 0.95 + random.nextDouble() * 0.05));
+        }
+        games = new int[scenarioCount];
+        worldSeries = new boolean[scenarioCount];
+        for (int s = 0; s < scenarioCount; s++) {
+            games[s] = 1 + random.nextInt(4);
+            worldSeries[s] = random.nextBoolean();
+        }
+        table = revenue.buildRevenueTable(teams);
+    }
+
+    @Benchmark
+    public void calculateHomeAndAwayRevenue(Blackhole blackhole) {
+        for (Team4 team : teams) {
+            for (int s = 0; s < games.length; s++) {
+                blackhole.consume(revenue.calculateHomeRevenue(team, games[s], worldSeries[s]));
+                blackhole.consume(revenue.calculateAwayRevenue(team, games[s], worldSeries[s]));
+            }
+        }
+    }
+
+    // 同樣的查詢改用預先計算的收益查詢表
+    @Benchmark
+    public void revenueTableLookup(Blackhole blackhole) {
+        int last = table.rounds() - 1;
+        for (int t = 0; t < table.teams().size(); t++) {
+            for (int s = 0; s < games.length; s++) {
+                int round = worldSeries[s] ? last : last - 1;
+                blackhole.consume(table.home(t, round, games[s]));
+                blackhole.consume(table.away(t, round, games[s]));
+            }
+        }
+    }
+
+    @Benchmark
+    public RevenueTable buildRevenueTable() {
+        return revenue.buildRevenueTable(teams);
+    }
+}
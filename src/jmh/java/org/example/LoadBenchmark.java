@@ -0,0 +1,79 @@
+package org.example;
+
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 載入效能：json-simple（readTeamsFromJson）、Jackson 串流（陣列 / NDJSON）與二進位快照
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+    @Param({"11", "1000", "100000"})
+    int teamCount;
+
+    private Path directory;
+    private Path json;
+    private Path ndjson;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("load-benchmark");
+        json = directory.resolve("teams.json");
+        ndjson = directory.resolve("teams.ndjson");
+        snapshot = directory.resolve("teams.bin");
+        List<Team3> teams = BenchmarkData.teams(teamCount);
+        BenchmarkData.writeJson(teams, json, false);
+        BenchmarkData.writeJson(teams, ndjson, true);
+        TeamSnapshot.write(TeamTable.fromTeams(teams), snapshot);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(ndjson);
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<Team3> jsonSimple() throws IOException, ParseException {
+        return PostseasonRevenue3.readTeamsFromJson(json.toString());
+    }
+
+    @Benchmark
+    public TeamTable jacksonArray() throws IOException {
+        return TeamJsonLoader.load(json).teams;
+    }
+
+    @Benchmark
+    public TeamTable jacksonNdjson() throws IOException {
+        return TeamJsonLoader.load(ndjson).teams;
+    }
+
+    @Benchmark
+    public TeamTable snapshot() throws IOException {
+        return TeamSnapshot.read(snapshot);
+    }
+}
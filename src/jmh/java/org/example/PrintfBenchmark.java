@@ -0,0 +1,63 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 原本的輸出方式：每一行一次 printf，輸出丟棄不落地；與 RenderBenchmark 的報表格式無關，只依球隊數與情境數
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrintfBenchmark {
+    @Param({"11", "1000"})
+    int teamCount;
+
+    @Param({"4", "64"})
+    int scenarioCount;
+
+    private List<Team3> teams;
+    private double[] values;
+    private String[] labels;
+    private PrintStream printStream;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        PostseasonRevenue3 revenue = new PostseasonRevenue3(PostseasonRevenue3.loadProperties());
+        teams = BenchmarkData.teams(teamCount);
+        RevenueScenarios scenarios = BenchmarkData.scenarios(scenarioCount);
+        values = revenue.calculateAll(TeamTable.fromTeams(teams), scenarios);
+        labels = new String[scenarioCount];
+        for (int s = 0; s < scenarioCount; s++) {
+            labels[s] = scenarios.name(s);
+        }
+        printStream = new PrintStream(OutputStream.nullOutputStream(), true);
+    }
+
+    @Benchmark
+    public void printf() {
+        for (int t = 0; t < teams.size(); t++) {
+            printStream.printf("%nTeam 隊伍: %s%n", teams.get(t).name);
+            for (int s = 0; s < labels.length; s++) {
+                printStream.printf("%s : $%.2f 美元%n", labels[s], values[s * teams.size() + t]);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 輸出效能：RevenueReportWriter（文字 / CSV / JSON Lines）與完整的 calculateAndPrintRevenues，輸出丟棄不落地
+// （原本逐行 printf 的輸出與格式無關，另見 PrintfBenchmark）
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark {
+    @Param({"11", "1000"})
+    int teamCount;
+
+    @Param({"4", "64"})
+    int scenarioCount;
+
+    @Param({"TEXT", "CSV", "JSON_LINES"})
+    RevenueReportWriter.Format format;
+
+    private PostseasonRevenue3 revenue;
+    private List<Team3> teams;
+    private RevenueScenarios scenarios;
+    private double[] values;
+    private String[] labels;
+    private RevenueReportWriter report;   // 整個量測期間共用，避免每次配置 1MB 緩衝區
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        revenue = new PostseasonRevenue3(PostseasonRevenue3.loadProperties());
+        teams = BenchmarkData.teams(teamCount);
+        scenarios = BenchmarkData.scenarios(scenarioCount);
+        values = revenue.calculateAll(TeamTable.fromTeams(teams), scenarios);
+        labels = new String[scenarioCount];
+        for (int s = 0; s < scenarioCount; s++) {
+            labels[s] = scenarios.name(s);
+        }
+        WritableByteChannel channel = Channels.newChannel(OutputStream.nullOutputStream());
+        report = new RevenueReportWriter(channel, false, format, new MoneyFormat("$#,##0.00"));
+    }
+
+    @Benchmark
+    public long reportWriter() {
+        for (int t = 0; t < teams.size(); t++) {
+            report.team(teams.get(t).name);
+            for (int s = 0; s < labels.length; s++) {
+                report.amount(labels[s], values[s * teams.size() + t]);
+            }
+        }
+        report.flush();
+        return report.bytesWritten();
+    }
+
+    // PostseasonRevenue3.calculateAndPrintRevenues 的完整計算與輸出，情境數依 scenarioCount
+    @Benchmark
+    public long calculateAndPrintRevenues() {
+        revenue.calculateAndPrintRevenues(teams, scenarios, report, Collections.emptyMap());
+        report.flush();
+        return report.bytesWritten();
+    }
+}
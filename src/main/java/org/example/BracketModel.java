@@ -0,0 +1,312 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Properties;
+
+// 12 隊季後賽對戰樹的精確期望收益：以馬可夫鏈逐輪傳遞每個對戰位置由哪支球隊佔據的機率
+//
+// 每個聯盟 6 個種子：外卡賽 3 對 6、4 對 5，第 1、2 種子輪空；分區系列賽 1 對（4/5 勝者）、2 對（3/6 勝者）；
+// 之後聯盟冠軍賽與世界大賽。兩個位置的佔據者來自不相交的子樹，因此可直接相乘；
+// 每組對戰以 SeriesEnumerator 的 (高種子勝場, 低種子勝場) 狀態表求出晉級機率與每場開打機率，
+// 再乘上 GameRevenueModel 的單場收益表得到期望收益。結果是精確值，沒有抽樣誤差，整個聯盟只需數微秒。
+public final class BracketModel {
+    static final int SEEDS = 6;
+    static final String[] LEAGUES = {"al", "nl"};
+    static final String[] LEAGUE_NAMES = {"美國聯盟", "國家聯盟"};
+
+    private final TeamTable teams;
+    private final int n;
+    private final SeriesFormat[] rounds;
+    private final GameRevenueModel model;
+    private final int tableSize;
+    private final double[] homeRevenue;     // [team * tableSize + model.index(輪, 場, 狀態)]：單場主場收益
+    private final double[] awayRevenue;     // [team * tableSize + model.index(輪, 場, 狀態)]：單場客場收益
+    private final double[] strength;        // 決定世界大賽主場優勢的實力值（評分或 Elo）
+    private final double[] winProbability;  // [a * n + b]：a 對 b 的單場勝率（未含主場優勢）
+    private final double homeAdvantage;
+    private final int[][] bracket;          // [聯盟][種子 - 1] -> 球隊索引（-1 表示該種子從缺）
+    private final int[] league;             // 球隊索引 -> 聯盟（-1 表示未進季後賽）
+    private final int[] seed;               // 球隊索引 -> 種子（1 起算）
+
+    // 計算結果
+    public static final class Result {
+        final int rounds;
+        final double[] expected;        // [team]：期望收益
+        final double[] expectedByRound; // [team * rounds + round]：各輪期望收益
+        final double[] reach;           // [team * (rounds + 1) + round]：打進該輪的機率，最後一格為奪冠機率
+
+        Result(int teams, int rounds) {
+            this.rounds = rounds;
+            this.expected = new double[teams];
+            this.expectedByRound = new double[teams * rounds];
+            this.reach = new double[teams * (rounds + 1)];
+        }
+
+        public double expected(int team) {
+            return expected[team];
+        }
+
+        public double expected(int team, int round) {
+            return expectedByRound[team * rounds + round];
+        }
+
+        public double reach(int team, int round) {
+            return reach[team * (rounds + 1) + round];
+        }
+
+        public double champion(int team) {
+            return reach[team * (rounds + 1) + rounds];
+        }
+    }
+
+    public BracketModel(Properties props, TeamTable teams) {
+        this.teams = teams;
+        this.n = teams.size();
+        this.rounds = SeriesFormat.fromProperties(props);
+        if (rounds.length != 4) {
+            throw new IllegalArgumentException("12 隊賽制必須為4輪");
+        }
+        this.model = GameRevenueModel.fromProperties(props);
+        this.tableSize = model.tableSize();
+        this.homeRevenue = new double[n * tableSize];
+        this.awayRevenue = new double[n * tableSize];
+        this.homeAdvantage = PostseasonRevenue3.getDoubleProperty(props, "sim.home.advantage", 0.04);
+        for (int t = 0; t < n; t++) {
+            model.fillTeamTables(teams.capacity(t), teams.playoffFillRate(t), teams.worldSeriesFillRate(t),
+                    homeRevenue, awayRevenue, t * tableSize);
+        }
+
+        // bracket.strength=log5 使用 team.rating.<代碼>（勝率），elo 使用 team.elo.<代碼>
+        String kind = props.getProperty("bracket.strength", "log5").trim();
+        this.strength = new double[n];
+        this.winProbability = new double[n * n];
+        for (int t = 0; t < n; t++) {
+            String code = PostseasonSimulator.teamCode(teams.name(t));
+            if (kind.equals("elo")) {
+                strength[t] = PostseasonRevenue3.getDoubleProperty(props, "team.elo." + code, 1500);
+            } else if (kind.equals("log5")) {
+                strength[t] = PostseasonSimulator.getRating(props, teams.name(t));
+            } else {
+                throw new IllegalArgumentException("無效的實力模型: " + kind);
+            }
+        }
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                winProbability[a * n + b] = kind.equals("elo")
+                        ? 1 / (1 + Math.pow(10, (strength[b] - strength[a]) / 400))
+                        : PostseasonSimulator.log5(strength[a], strength[b]);
+            }
+        }
+
+        this.league = new int[n];
+        this.seed = new int[n];
+        Arrays.fill(league, -1);
+        this.bracket = seeding(props);
+    }
+
+    // 讀取 bracket.al / bracket.nl（依種子順序的球隊代碼，逗號分隔，空白表示從缺）；
+    // 都未設定時依實力排序，交替分到兩個聯盟
+    private int[][] seeding(Properties props) {
+        int[][] slots = new int[LEAGUES.length][SEEDS];
+        for (int[] row : slots) {
+            Arrays.fill(row, -1);
+        }
+        boolean configured = false;
+        for (int l = 0; l < LEAGUES.length; l++) {
+            String value = props.getProperty("bracket." + LEAGUES[l], "").trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            configured = true;
+            String[] codes = value.split(",", -1);
+            if (codes.length > SEEDS) {
+                throw new IllegalArgumentException("bracket." + LEAGUES[l] + " 最多 " + SEEDS + " 個種子");
+            }
+            for (int s = 0; s < codes.length; s++) {
+                String code = codes[s].trim();
+                if (!code.isEmpty()) {
+                    int t = findCode(code);
+                    if (t >= 0) {
+                        place(slots, l, s, t);
+                    }
+                }
+            }
+        }
+        if (!configured) {
+            Integer[] order = new Integer[n];
+            for (int t = 0; t < n; t++) {
+                order[t] = t;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(strength[b], strength[a]));
+            for (int i = 0; i < Math.min(n, SEEDS * LEAGUES.length); i++) {
+                place(slots, i % LEAGUES.length, i / LEAGUES.length, order[i]);
+            }
+        }
+        return slots;
+    }
+
+    private void place(int[][] slots, int l, int s, int t) {
+        if (league[t] >= 0) {
+            throw new IllegalArgumentException("球隊重複列在對戰樹中: " + teams.name(t));
+        }
+        slots[l][s] = t;
+        league[t] = l;
+        seed[t] = s + 1;
+    }
+
+    private int findCode(String code) {
+        for (int t = 0; t < n; t++) {
+            if (PostseasonSimulator.teamCode(teams.name(t)).equals(code)) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    public TeamTable teams() {
+        return teams;
+    }
+
+    // 球隊所屬聯盟（-1 表示未進季後賽）
+    public int league(int team) {
+        return league[team];
+    }
+
+    public int seed(int team) {
+        return seed[team];
+    }
+
+    // 聯盟 l 第 s 種子（0 起算）的球隊索引，從缺時為 -1；供 PostseasonSimulator 使用同一份種子表
+    int team(int l, int s) {
+        return bracket[l][s];
+    }
+
+    // a 對 b 的單場勝率（未含主場優勢）
+    double winProbability(int a, int b) {
+        return winProbability[a * n + b];
+    }
+
+    // 計算所有球隊的期望收益與各輪晉級機率
+    public Result evaluate() {
+        Result result = new Result(n, rounds.length);
+        double[][] champions = new double[LEAGUES.length][];
+        for (int l = 0; l < LEAGUES.length; l++) {
+            int[] s = bracket[l];
+            double[] wildCardA = series(slot(s[2]), slot(s[5]), 0, result);  // 3 對 6
+            double[] wildCardB = series(slot(s[3]), slot(s[4]), 0, result);  // 4 對 5
+            double[] divisionA = series(slot(s[0]), wildCardB, 1, result);   // 1 對（4/5 勝者）
+            double[] divisionB = series(slot(s[1]), wildCardA, 1, result);   // 2 對（3/6 勝者）
+            champions[l] = series(divisionA, divisionB, 2, result);
+        }
+        double[] champion = series(champions[0], champions[1], 3, result);
+        for (int t = 0; t < n; t++) {
+            result.reach[t * (rounds.length + 1) + rounds.length] = champion[t];
+            double total = 0;
+            for (int r = 0; r < rounds.length; r++) {
+                total += result.expectedByRound[t * rounds.length + r];
+            }
+            result.expected[t] = total;
+        }
+        return result;
+    }
+
+    private double[] slot(int team) {
+        double[] occupant = new double[n];
+        if (team >= 0) {
+            occupant[team] = 1;
+        }
+        return occupant;
+    }
+
+    // 一組對戰：a、b 為兩個位置的佔據者分佈，回傳勝者分佈，並累計各隊在本輪的期望收益與晉級機率
+    private double[] series(double[] a, double[] b, int round, Result result) {
+        double massA = 0;
+        double massB = 0;
+        for (int t = 0; t < n; t++) {
+            massA += a[t];
+            massB += b[t];
+            result.reach[t * (rounds.length + 1) + round] += a[t] + b[t];
+        }
+        if (massB == 0) {
+            return a;   // 對手從缺，直接晉級
+        }
+        if (massA == 0) {
+            return b;
+        }
+        SeriesFormat format = rounds[round];
+        double[] winner = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < n; j++) {
+                if (b[j] == 0) {
+                    continue;
+                }
+                double p = a[i] * b[j];
+                int high = higherSeed(i, j, round) ? i : j;
+                int low = high == i ? j : i;
+                double game = winProbability[high * n + low];
+                SeriesEnumerator.SeriesOutcomes outcomes = SeriesEnumerator.outcomes(format,
+                        clamp(game + homeAdvantage), clamp(game - homeAdvantage));
+                double highWins = outcomes.winProbability(true);
+                winner[high] += p * highWins;
+                winner[low] += p * (1 - highWins);
+                result.expectedByRound[high * rounds.length + round] += p * outcomes.expectedGameRevenue(
+                        model, round, true, homeRevenue, awayRevenue, high * tableSize);
+                result.expectedByRound[low * rounds.length + round] += p * outcomes.expectedGameRevenue(
+                        model, round, false, homeRevenue, awayRevenue, low * tableSize);
+            }
+        }
+        return winner;
+    }
+
+    // 聯盟內依種子，世界大賽依實力（相同時美國聯盟優先）
+    boolean higherSeed(int a, int b, int round) {
+        if (round < rounds.length - 1) {
+            return seed[a] < seed[b];
+        }
+        return strength[a] != strength[b] ? strength[a] > strength[b] : league[a] < league[b];
+    }
+
+    private static double clamp(double p) {
+        return Math.max(0.001, Math.min(0.999, p));
+    }
+
+    // 主方法：打印每支球隊的期望收益與各輪晉級機率
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            BracketModel bracket = new BracketModel(props, PostseasonRevenue3.loadConfiguredTeams(props));
+            Result result = bracket.evaluate();
+            long start = System.nanoTime();
+            int repeats = 10000;
+            for (int i = 0; i < repeats; i++) {
+                result = bracket.evaluate();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            TeamTable teams = bracket.teams();
+            for (int t = 0; t < teams.size(); t++) {
+                if (bracket.league(t) < 0) {
+                    System.out.printf("%nTeam 隊伍: %s (未進季後賽)%n", teams.name(t));
+                    continue;
+                }
+                System.out.printf("%nTeam 隊伍: %s (%s 第 %d 種子)%n", teams.name(t),
+                        LEAGUE_NAMES[bracket.league(t)], bracket.seed(t));
+                System.out.printf("  期望收益 : $%.2f 美元%n", result.expected(t));
+                for (int r = 0; r < PostseasonSimulator.ROUNDS; r++) {
+                    System.out.printf("  進入%s機率 : %.4f，期望收益 $%.2f 美元%n", PostseasonSimulator.ROUND_NAMES[r],
+                            result.reach(t, r), result.expected(t, r));
+                }
+                System.out.printf("  奪冠機率 : %.4f%n", result.champion(t));
+            }
+            System.out.printf("%n每次計算整個聯盟平均 %.1f 微秒%n", elapsed / 1e3 / repeats);
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        }
+    }
+}
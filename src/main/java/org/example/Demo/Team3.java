@@ -1,5 +1,6 @@
 package org.example.Demo;
 
+import org.example.Money;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -39,12 +40,14 @@ class PostseasonRevenue3 {
     private final double ticketPriceWorldSeries;
     private final double revenueShareHome;
     private final double revenueShareAway;
+    private final Money money;   // 定點金額單位（money.decimals）
 
     public PostseasonRevenue3(Properties props) throws IllegalArgumentException {
         this.ticketPricePlayoff = getDoubleProperty(props, "ticket.price.playoff", 450);
         this.ticketPriceWorldSeries = getDoubleProperty(props, "ticket.price.worldseries", 800);
         this.revenueShareHome = getDoubleProperty(props, "revenue.share.home", 0.85);
         this.revenueShareAway = getDoubleProperty(props, "revenue.share.away", 0.15);
+        this.money = Money.fromProperties(props);
 
         if (Math.abs(this.revenueShareHome + this.revenueShareAway - 1.0) > 0.000001) {
             throw new IllegalArgumentException("收益分配比例總和必須為1");
@@ -85,60 +88,65 @@ class PostseasonRevenue3 {
         return teams;
     }
 
-    private double calculateHomeRevenue(Team3 team, int games, boolean isWorldSeries) {
+    // 以定點單位計算：每場收益捨入一次後乘上場次，累積收益為精確的整數加總
+    private long calculateHomeRevenue(Team3 team, int games, boolean isWorldSeries) {
         double ticketPrice = isWorldSeries ? ticketPriceWorldSeries : ticketPricePlayoff;
         double fillRate = isWorldSeries ? team.worldSeriesFillRate : team.playoffFillRate;
-        return team.capacity * fillRate * ticketPrice * revenueShareHome * games;
+        return Money.times(money.gate(team.capacity, fillRate, ticketPrice, revenueShareHome), games);
     }
 
-    private double calculateAwayRevenue(Team3 team, int games, boolean isWorldSeries) {
+    private long calculateAwayRevenue(Team3 team, int games, boolean isWorldSeries) {
         double ticketPrice = isWorldSeries ? ticketPriceWorldSeries : ticketPricePlayoff;
         double fillRate = isWorldSeries ? team.worldSeriesFillRate : team.playoffFillRate;
-        return team.capacity * fillRate * ticketPrice * revenueShareAway * games;
+        return Money.times(money.gate(team.capacity, fillRate, ticketPrice, revenueShareAway), games);
+    }
+
+    private double dollars(long units) {
+        return money.dollars(units);
     }
 
     public void calculateAndPrintRevenues(List<org.example.Demo.Team3> teams) {
         for (org.example.Demo.Team3 team : teams) {
             try {
                 // 外卡賽收益計算
-                double homeWildCardWin = calculateHomeRevenue(team, 2, false);
-                double awayWildCardWin = calculateAwayRevenue(team, 2, false);
-                double homeWildCardLoss = calculateHomeRevenue(team, 1, false);
-                double awayWildCardLoss = calculateAwayRevenue(team, 1, false);
+                long homeWildCardWin = calculateHomeRevenue(team, 2, false);
+                long awayWildCardWin = calculateAwayRevenue(team, 2, false);
+                long homeWildCardLoss = calculateHomeRevenue(team, 1, false);
+                long awayWildCardLoss = calculateAwayRevenue(team, 1, false);
 
                 // 分區系列賽收益計算
-                double homeDivisionWin = homeWildCardWin + calculateHomeRevenue(team, 3, false);
-                double awayDivisionWin = awayWildCardWin + calculateAwayRevenue(team, 2, false);
-                double homeDivisionLoss = homeWildCardWin + calculateHomeRevenue(team, 2, false);
-                double awayDivisionLoss = awayWildCardWin + calculateAwayRevenue(team, 1, false);
+                long homeDivisionWin = Money.add(homeWildCardWin, calculateHomeRevenue(team, 3, false));
+                long awayDivisionWin = Money.add(awayWildCardWin, calculateAwayRevenue(team, 2, false));
+                long homeDivisionLoss = Money.add(homeWildCardWin, calculateHomeRevenue(team, 2, false));
+                long awayDivisionLoss = Money.add(awayWildCardWin, calculateAwayRevenue(team, 1, false));
 
                 // 聯盟冠軍賽收益計算
-                double homeChampionshipWin = homeDivisionWin + calculateHomeRevenue(team, 4, false);
-                double awayChampionshipWin = awayDivisionWin + calculateAwayRevenue(team, 3, false);
-                double homeChampionshipLoss = homeDivisionWin + calculateHomeRevenue(team, 3, false);
-                double awayChampionshipLoss = awayDivisionWin + calculateAwayRevenue(team, 2, false);
+                long homeChampionshipWin = Money.add(homeDivisionWin, calculateHomeRevenue(team, 4, false));
+                long awayChampionshipWin = Money.add(awayDivisionWin, calculateAwayRevenue(team, 3, false));
+                long homeChampionshipLoss = Money.add(homeDivisionWin, calculateHomeRevenue(team, 3, false));
+                long awayChampionshipLoss = Money.add(awayDivisionWin, calculateAwayRevenue(team, 2, false));
 
                 // 世界大賽收益計算
-                double homeWorldSeriesWin = homeChampionshipWin + calculateHomeRevenue(team, 4, true);
-                double awayWorldSeriesWin = awayChampionshipWin + calculateAwayRevenue(team, 3, true);
-                double homeWorldSeriesLoss = homeChampionshipWin + calculateHomeRevenue(team, 3, true);
-                double awayWorldSeriesLoss = awayChampionshipWin + calculateAwayRevenue(team, 2, true);
+                long homeWorldSeriesWin = Money.add(homeChampionshipWin, calculateHomeRevenue(team, 4, true));
+                long awayWorldSeriesWin = Money.add(awayChampionshipWin, calculateAwayRevenue(team, 3, true));
+                long homeWorldSeriesLoss = Money.add(homeChampionshipWin, calculateHomeRevenue(team, 3, true));
+                long awayWorldSeriesLoss = Money.add(awayChampionshipWin, calculateAwayRevenue(team, 2, true));
 
                 // 打印結果
                 System.out.printf("%nTeam 隊伍: %s%n", team.name);
                 System.out.println("主場累積收益:");
-                System.out.printf("  外卡賽 (贏): $%.2f, (輸): $%.2f%n", homeWildCardWin, homeWildCardLoss);
-                System.out.printf("  分區系列賽 (贏): $%.2f, (輸): $%.2f%n", homeDivisionWin, homeDivisionLoss);
-                System.out.printf("  聯盟冠軍賽 (贏): $%.2f, (輸): $%.2f%n", homeChampionshipWin, homeChampionshipLoss);
-                System.out.printf("  世界大賽 (贏): $%.2f, (輸): $%.2f%n", homeWorldSeriesWin, homeWorldSeriesLoss);
+                System.out.printf("  外卡賽 (贏): $%.2f, (輸): $%.2f%n", dollars(homeWildCardWin), dollars(homeWildCardLoss));
+                System.out.printf("  分區系列賽 (贏): $%.2f, (輸): $%.2f%n", dollars(homeDivisionWin), dollars(homeDivisionLoss));
+                System.out.printf("  聯盟冠軍賽 (贏): $%.2f, (輸): $%.2f%n", dollars(homeChampionshipWin), dollars(homeChampionshipLoss));
+                System.out.printf("  世界大賽 (贏): $%.2f, (輸): $%.2f%n", dollars(homeWorldSeriesWin), dollars(homeWorldSeriesLoss));
 
                 System.out.println("客場累積收益:");
-                System.out.printf("  外卡賽 (贏): $%.2f, (輸): $%.2f%n", awayWildCardWin, awayWildCardLoss);
-                System.out.printf("  分區系列賽 (贏): $%.2f, (輸): $%.2f%n", awayDivisionWin, awayDivisionLoss);
-                System.out.printf("  聯盟冠軍賽 (贏): $%.2f, (輸): $%.2f%n", awayChampionshipWin, awayChampionshipLoss);
-                System.out.printf("  世界大賽 (贏): $%.2f, (輸): $%.2f%n", awayWorldSeriesWin, awayWorldSeriesLoss);
+                System.out.printf("  外卡賽 (贏): $%.2f, (輸): $%.2f%n", dollars(awayWildCardWin), dollars(awayWildCardLoss));
+                System.out.printf("  分區系列賽 (贏): $%.2f, (輸): $%.2f%n", dollars(awayDivisionWin), dollars(awayDivisionLoss));
+                System.out.printf("  聯盟冠軍賽 (贏): $%.2f, (輸): $%.2f%n", dollars(awayChampionshipWin), dollars(awayChampionshipLoss));
+                System.out.printf("  世界大賽 (贏): $%.2f, (輸): $%.2f%n", dollars(awayWorldSeriesWin), dollars(awayWorldSeriesLoss));
 
-            } catch (IllegalArgumentException e) {
+            } catch (IllegalArgumentException | ArithmeticException e) {
                 System.err.println("計算 " + team.name + " 的收益時發生錯誤: " + e.getMessage());
             }
         }
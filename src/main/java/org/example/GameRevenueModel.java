@@ -0,0 +1,193 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Properties;
+
+// 單場收益模型：票價與上座率依輪次、第幾場與系列賽狀態（一般 / 淘汰賽 / 生死戰）而不同
+//
+// 曲線以扁平 double[] 存放，索引為 round * stride + game（game 從 0 起算）；狀態倍數另存一張小表。
+// 未設定曲線時每場都使用 ticket.price.* 與球隊上座率，結果與 PostseasonRevenue3 相同。
+public final class GameRevenueModel {
+    public static final int REGULAR = 0;      // 一般比賽
+    public static final int ELIMINATION = 1;  // 有一隊輸了就被淘汰（另一隊可晉級）
+    public static final int DECIDING = 2;     // 兩隊都聽牌的生死戰，例如第7場
+    public static final int STATUSES = 3;
+    static final String[] STATUS_KEYS = {"regular", "elimination", "deciding"};
+
+    private final SeriesFormat[] rounds;
+    private final int stride;              // 每輪的欄寬（最長賽制的場數）
+    private final double[] price;          // [round * stride + game]：單場票價
+    private final double[] fill;           // [round * stride + game]：上座率倍數
+    private final double[] statusPrice;    // [status]：票價倍數
+    private final double[] statusFill;     // [status]：上座率倍數
+    private final double revenueShareHome;
+    private final double revenueShareAway;
+
+    GameRevenueModel(SeriesFormat[] rounds, double[] price, double[] fill, double[] statusPrice, double[] statusFill,
+                     double revenueShareHome, double revenueShareAway) {
+        this.rounds = rounds.clone();
+        int longest = 0;
+        for (SeriesFormat format : rounds) {
+            longest = Math.max(longest, format.maxGames());
+        }
+        this.stride = longest;
+        if (price.length != rounds.length * stride || fill.length != price.length
+                || statusPrice.length != STATUSES || statusFill.length != STATUSES) {
+            throw new IllegalArgumentException("單場收益曲線長度不符");
+        }
+        this.price = price;
+        this.fill = fill;
+        this.statusPrice = statusPrice;
+        this.statusFill = statusFill;
+        this.revenueShareHome = revenueShareHome;
+        this.revenueShareAway = revenueShareAway;
+    }
+
+    // 讀取 game.price.<輪>、game.fill.<輪>（逗號分隔，不足的場次沿用最後一個值）與 game.status.*
+    public static GameRevenueModel fromProperties(Properties props) {
+        RevenueEvents.ConfigParse event = RevenueEvents.ENABLED ? new RevenueEvents.ConfigParse() : null;
+        if (event != null) {
+            event.begin();
+        }
+        SeriesFormat[] rounds = SeriesFormat.fromProperties(props);
+        double shareHome = PostseasonRevenue3.getDoubleProperty(props, "revenue.share.home", 0.85);
+        double shareAway = PostseasonRevenue3.getDoubleProperty(props, "revenue.share.away", 0.15);
+        if (Math.abs(shareHome + shareAway - 1.0) > 0.000001) {
+            throw new IllegalArgumentException("收益分配比例總和必須為1");
+        }
+        double playoffPrice = PostseasonRevenue3.getDoubleProperty(props, "ticket.price.playoff", 450);
+        double worldSeriesPrice = PostseasonRevenue3.getDoubleProperty(props, "ticket.price.worldseries", 800);
+
+        int stride = 0;
+        for (SeriesFormat format : rounds) {
+            stride = Math.max(stride, format.maxGames());
+        }
+        double[] price = new double[rounds.length * stride];
+        double[] fill = new double[rounds.length * stride];
+        for (int r = 0; r < rounds.length; r++) {
+            String key = rounds[r].key();
+            double flatPrice = r == rounds.length - 1 ? worldSeriesPrice : playoffPrice;
+            readCurve(props, "game.price." + key, flatPrice, price, r * stride, rounds[r].maxGames());
+            readCurve(props, "game.fill." + key, 1.0, fill, r * stride, rounds[r].maxGames());
+        }
+
+        double[] statusPrice = new double[STATUSES];
+        double[] statusFill = new double[STATUSES];
+        for (int s = 0; s < STATUSES; s++) {
+            statusPrice[s] = PostseasonRevenue3.getDoubleProperty(props, "game.status.price." + STATUS_KEYS[s], 1.0);
+            statusFill[s] = PostseasonRevenue3.getDoubleProperty(props, "game.status.fill." + STATUS_KEYS[s], 1.0);
+        }
+        GameRevenueModel model = new GameRevenueModel(rounds, price, fill, statusPrice, statusFill, shareHome, shareAway);
+        if (event != null && event.shouldCommit()) {
+            event.component = "GameRevenueModel";
+            event.commit();
+        }
+        return model;
+    }
+
+    private static void readCurve(Properties props, String key, double flat, double[] curve, int offset, int games) {
+        String value = props.getProperty(key, "").trim();
+        if (value.isEmpty()) {
+            for (int g = 0; g < games; g++) {
+                curve[offset + g] = flat;
+            }
+            return;
+        }
+        String[] parts = value.split(",");
+        if (parts.length > games) {
+            throw new IllegalArgumentException(key + " 最多 " + games + " 個值");
+        }
+        double last = flat;
+        for (int g = 0; g < games; g++) {
+            if (g < parts.length) {
+                try {
+                    last = Double.parseDouble(parts[g].trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("無效的數值設定: " + key);
+                }
+                if (last < 0) {
+                    throw new IllegalArgumentException(key + " 不能為負數");
+                }
+            }
+            curve[offset + g] = last;
+        }
+    }
+
+    // 依比賽前的勝場判斷系列賽狀態
+    public static int status(int highWins, int lowWins, int winsNeeded) {
+        boolean highMatchPoint = highWins == winsNeeded - 1;
+        boolean lowMatchPoint = lowWins == winsNeeded - 1;
+        if (highMatchPoint && lowMatchPoint) {
+            return DECIDING;
+        }
+        return highMatchPoint || lowMatchPoint ? ELIMINATION : REGULAR;
+    }
+
+    public SeriesFormat[] rounds() {
+        return rounds.clone();
+    }
+
+    public int stride() {
+        return stride;
+    }
+
+    // 每支球隊單場收益表的長度
+    public int tableSize() {
+        return rounds.length * stride * STATUSES;
+    }
+
+    // 單場收益表索引
+    public int index(int round, int game, int status) {
+        return (round * stride + game) * STATUSES + status;
+    }
+
+    public double price(int round, int game, int status) {
+        return price[round * stride + game] * statusPrice[status];
+    }
+
+    // 實際上座率：球隊基本上座率 × 場次倍數 × 狀態倍數，最高為 1
+    public double fillRate(int round, int game, int status, double baseFillRate) {
+        return Math.min(1.0, baseFillRate * fill[round * stride + game] * statusFill[status]);
+    }
+
+    // 單場門票總收入（未分成）
+    public double gate(int round, int game, int status, int capacity, double playoffFillRate, double worldSeriesFillRate) {
+        double base = round == rounds.length - 1 ? worldSeriesFillRate : playoffFillRate;
+        return capacity * fillRate(round, game, status, base) * price(round, game, status);
+    }
+
+    // 填入一支球隊的單場主場 / 客場收益表（長度 tableSize()，從 offset 起），模擬與枚舉只需查表
+    public void fillTeamTables(int capacity, double playoffFillRate, double worldSeriesFillRate,
+                               double[] home, double[] away, int offset) {
+        for (int r = 0; r < rounds.length; r++) {
+            for (int g = 0; g < rounds[r].maxGames(); g++) {
+                for (int s = 0; s < STATUSES; s++) {
+                    double gate = gate(r, g, s, capacity, playoffFillRate, worldSeriesFillRate);
+                    int i = offset + index(r, g, s);
+                    home[i] = gate * revenueShareHome;
+                    away[i] = gate * revenueShareAway;
+                }
+            }
+        }
+    }
+
+    // 主方法：列出各輪每場的票價與上座率倍數
+    public static void main(String[] args) {
+        try {
+            GameRevenueModel model = fromProperties(PostseasonRevenue3.loadProperties());
+            for (int r = 0; r < model.rounds.length; r++) {
+                SeriesFormat format = model.rounds[r];
+                System.out.printf("%n%s (%s)%n", format.key(), format.pattern());
+                for (int g = 0; g < format.maxGames(); g++) {
+                    System.out.printf("  第 %d 場: 票價 $%.2f / 淘汰賽 $%.2f / 生死戰 $%.2f，上座率倍數 %.3f%n",
+                            g + 1, model.price(r, g, REGULAR), model.price(r, g, ELIMINATION),
+                            model.price(r, g, DECIDING), model.fill[r * model.stride + g]);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example;
+
+import java.util.Properties;
+
+// 定點金額：以 long 存放「分」（或更細的單位，money.decimals），加總與乘上場次都是整數運算並檢查溢位
+//
+// 每場收益 capacity × fillRate × price × share 先以 double 算出（Java 17 起浮點運算在各平台結果一致），
+// 再以四捨六入五成雙（Math.rint）捨入到最小單位，之後只做 long 加法與乘法：
+// 加法滿足結合律，平行加總不論分組與順序都得到相同結果，也不會像 double 一樣在大量累加時產生誤差。
+public final class Money {
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    public static final Money CENTS = new Money(2);
+    private static final double MAX_EXACT = 0x1p53;   // 超過 2^53 的 double 不再能精確表示每個整數
+
+    private final int decimals;
+    private final long scale;   // 每 1 元的單位數
+
+    public Money(int decimals) {
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("金額小數位數必須在0到" + (POWERS_OF_TEN.length - 1) + "之間");
+        }
+        this.decimals = decimals;
+        this.scale = POWERS_OF_TEN[decimals];
+    }
+
+    // 讀取 money.decimals（預設 2，即以分為單位）
+    public static Money fromProperties(Properties props) {
+        int decimals = PostseasonRevenue3.getIntProperty(props, "money.decimals", 2);
+        return decimals == 2 ? CENTS : new Money(decimals);
+    }
+
+    public int decimals() {
+        return decimals;
+    }
+
+    // 金額（元）捨入為單位數，四捨六入五成雙
+    public long units(double dollars) {
+        double scaled = Math.rint(dollars * scale);
+        if (!(Math.abs(scaled) < MAX_EXACT)) {
+            throw new ArithmeticException("金額超出定點範圍: " + dollars);
+        }
+        return (long) scaled;
+    }
+
+    // 單場收益：capacity × fillRate × price × share，捨入一次
+    public long gate(int capacity, double fillRate, double price, double share) {
+        return units(capacity * fillRate * price * share);
+    }
+
+    // 單位數轉回金額（元），供格式化輸出
+    public double dollars(long units) {
+        return (double) units / scale;
+    }
+
+    // 每場收益 × 場次
+    public static long times(long units, int games) {
+        return Math.multiplyExact(units, games);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    // 乘加：accumulator + units × games
+    public static long addTimes(long accumulator, long units, int games) {
+        return Math.addExact(accumulator, Math.multiplyExact(units, games));
+    }
+
+    public static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total = Math.addExact(total, value);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,118 @@
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+
+// 金額格式：解析 currency.format（例如 $#,##0.00），把金額直接寫入位元組緩衝區，不建立任何物件
+public final class MoneyFormat {
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final byte[] prefix;   // 數字前的文字，例如 "$"
+    private final byte[] suffix;   // 數字後的文字
+    private final boolean grouping; // 是否每三位加逗號
+    private final int fractionDigits; // 小數位數
+    private final byte[] digits = new byte[32]; // 數字暫存區，重複使用
+
+    public MoneyFormat(String pattern) {
+        int start = firstPatternChar(pattern);
+        int end = lastPatternChar(pattern);
+        if (start < 0) {
+            throw new IllegalArgumentException("無效的金額格式: " + pattern);
+        }
+        String number = pattern.substring(start, end + 1);
+        int dot = number.indexOf('.');
+        this.prefix = pattern.substring(0, start).getBytes(StandardCharsets.UTF_8);
+        this.suffix = pattern.substring(end + 1).getBytes(StandardCharsets.UTF_8);
+        this.grouping = number.indexOf(',') >= 0 && (dot < 0 || number.indexOf(',') < dot);
+        this.fractionDigits = dot < 0 ? 0 : number.length() - dot - 1;
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("金額格式小數位數過多: " + pattern);
+        }
+    }
+
+    private static int firstPatternChar(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '#' || c == '0' || c == ',' || c == '.') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastPatternChar(String pattern) {
+        for (int i = pattern.length() - 1; i >= 0; i--) {
+            char c = pattern.charAt(i);
+            if (c == '#' || c == '0' || c == ',' || c == '.') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int fractionDigits() {
+        return fractionDigits;
+    }
+
+    // 依格式寫入金額（含前後綴與千分位），回傳寫入的位元組數
+    public int format(double amount, byte[] out, int offset) {
+        return write(amount, out, offset, true);
+    }
+
+    // 寫入純數字金額（無前後綴與千分位），供 CSV / JSON 使用
+    public int formatPlain(double amount, byte[] out, int offset) {
+        return write(amount, out, offset, false);
+    }
+
+    private int write(double amount, byte[] out, int offset, boolean decorated) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("無效的金額: " + amount);
+        }
+        int position = offset;
+        long scale = POWERS_OF_TEN[fractionDigits];
+        long units = Math.round(Math.abs(amount) * scale);
+        if (units != 0 && amount < 0) {
+            out[position++] = '-';
+        }
+        if (decorated) {
+            System.arraycopy(prefix, 0, out, position, prefix.length);
+            position += prefix.length;
+        }
+
+        // 由低位往高位產生數字，再反向寫出
+        long whole = units / scale;
+        long fraction = units % scale;
+        int count = 0;
+        int group = 0;
+        do {
+            if (decorated && grouping && group == 3) {
+                digits[count++] = ',';
+                group = 0;
+            }
+            digits[count++] = (byte) ('0' + whole % 10);
+            whole /= 10;
+            group++;
+        } while (whole != 0);
+        while (count > 0) {
+            out[position++] = digits[--count];
+        }
+        if (fractionDigits > 0) {
+            out[position++] = '.';
+            for (int i = fractionDigits - 1; i >= 0; i--) {
+                out[position + i] = (byte) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            position += fractionDigits;
+        }
+
+        if (decorated) {
+            System.arraycopy(suffix, 0, out, position, suffix.length);
+            position += suffix.length;
+        }
+        return position - offset;
+    }
+
+    // 單一金額最多需要的位元組數
+    public int maxLength() {
+        return prefix.length + suffix.length + 48;
+    }
+}
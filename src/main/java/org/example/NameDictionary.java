@@ -0,0 +1,95 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// 字串字典：把球隊名稱、球場名稱等字串轉成連續整數編號，欄位只儲存編號
+//
+// 由快照載入的字典直接引用檔案中的字串池（offsets / pool），字串在第一次 get 時才解碼；
+// 依字串查編號（find / intern）需要完整的對照表，第一次呼叫時才一次解碼全部字串。
+public final class NameDictionary {
+    private String[] values;
+    private volatile Map<String, Integer> ids;   // 快照字典在第一次查詢前為 null
+    private int size;
+    private final ByteBuffer offsets;   // int[size + 1]：字串在 pool 中的起點（little-endian），一般字典為 null
+    private final ByteBuffer pool;      // UTF-8 字串池
+
+    public NameDictionary() {
+        this.values = new String[16];
+        this.ids = new HashMap<>();
+        this.offsets = null;
+        this.pool = null;
+    }
+
+    // 以快照檔的字串池建立，呼叫端已檢查 offsets 遞增且不超出 pool
+    NameDictionary(ByteBuffer offsets, ByteBuffer pool, int size) {
+        this.values = new String[Math.max(1, size)];
+        this.size = size;
+        this.offsets = offsets;
+        this.pool = pool;
+    }
+
+    // 取得字串的編號，不存在時新增
+    public int intern(String value) {
+        Map<String, Integer> map = ids();
+        Integer id = map.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        map.put(value, size);
+        return size++;
+    }
+
+    // 取得字串的編號，不存在時回傳 -1
+    public int find(String value) {
+        Integer id = ids().get(value);
+        return id == null ? -1 : id;
+    }
+
+    public String get(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("無效的字典編號: " + id);
+        }
+        String value = values[id];
+        if (value == null) {
+            // 多條執行緒同時解碼同一個字串只會得到相同內容的 String，不需同步
+            value = decode(id);
+            values[id] = value;
+        }
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private String decode(int id) {
+        int start = offsets.getInt(id * 4);
+        byte[] bytes = new byte[offsets.getInt(id * 4 + 4) - start];
+        pool.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Map<String, Integer> ids() {
+        Map<String, Integer> map = ids;
+        return map != null ? map : buildIds();
+    }
+
+    private synchronized Map<String, Integer> buildIds() {
+        if (ids == null) {
+            Map<String, Integer> map = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                map.putIfAbsent(get(i), i);
+            }
+            ids = map;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,291 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// 季後賽蒙地卡羅模擬器：依 games.* 設定隨機模擬整個季後賽對戰樹，統計每支球隊的收益分佈
+//
+// 對戰樹、種子（bracket.al / bracket.nl）、單場勝率（bracket.strength）與高種子判斷都取自 BracketModel，
+// 因此模擬結果的期望值會收斂到 BracketModel 的精確值。
+class PostseasonSimulator {
+    static final int ROUNDS = 4;                 // 外卡賽、分區系列賽、聯盟冠軍賽、世界大賽
+    static final String[] ROUND_NAMES = {"外卡賽", "分區系列賽", "聯盟冠軍賽", "世界大賽"};
+    private static final int LEAF_ITERATIONS = 1 << 16; // 每個子任務最少模擬次數，固定值確保同一種子結果可重現
+
+    private final int teamCount;
+    private final String[] names;            // 球隊名稱
+    private final BracketModel bracket;      // 12 隊對戰樹的種子與單場勝率
+    private final double homeAdvantage;      // 主場球隊單場勝率加成
+    private final SeriesFormat[] rounds;     // 各輪賽制（games.*.min/max/pattern）
+    private final GameRevenueModel model;    // 單場票價與上座率曲線
+    private final int tableSize;             // 每支球隊單場收益表長度
+    private final double[] homeRevenue;      // [team * tableSize + model.index(輪, 場, 狀態)]：單場主場收益
+    private final double[] awayRevenue;      // [team * tableSize + model.index(輪, 場, 狀態)]：單場客場收益
+    private final int sketchBits;            // 收益分位數草圖每個 2 的冪次細分的位元數（sim.sketch.bits）
+
+    PostseasonSimulator(PostseasonRevenue3 revenue, List<Team3> teams, Properties props) {
+        if (teams.isEmpty()) {
+            throw new IllegalArgumentException("球隊數量必須大於0");
+        }
+        this.teamCount = teams.size();
+        this.names = new String[teamCount];
+        this.homeAdvantage = PostseasonRevenue3.getDoubleProperty(props, "sim.home.advantage", 0.04);
+        this.sketchBits = PostseasonRevenue3.getIntProperty(props, "sim.sketch.bits", RevenueDistribution.DEFAULT_SUB_BITS);
+        this.rounds = revenue.rounds;
+        if (rounds.length != ROUNDS) {
+            throw new IllegalArgumentException("季後賽必須為" + ROUNDS + "輪");
+        }
+
+        // 預先計算每支球隊每輪、每場、每種狀態的單場主客場收益
+        this.model = GameRevenueModel.fromProperties(props);
+        this.tableSize = model.tableSize();
+        this.homeRevenue = new double[teamCount * tableSize];
+        this.awayRevenue = new double[teamCount * tableSize];
+        TeamTable.Builder table = new TeamTable.Builder(teamCount);
+        for (int t = 0; t < teamCount; t++) {
+            Team3 team = teams.get(t);
+            names[t] = team.name;
+            table.add(team.name, team.stadium, team.capacity, team.playoffFillRate, team.worldSeriesFillRate);
+            model.fillTeamTables(team.capacity, team.playoffFillRate, team.worldSeriesFillRate,
+                    homeRevenue, awayRevenue, t * tableSize);
+        }
+        this.bracket = new BracketModel(props, table.build());
+    }
+
+    // 讀取球隊實力評分（team.rating.<球隊代碼>，預設 0.5）
+    static double getRating(Properties props, String teamName) {
+        double rating = PostseasonRevenue3.getDoubleProperty(props, "team.rating." + teamCode(teamName), 0.5);
+        if (rating <= 0 || rating >= 1) {
+            throw new IllegalArgumentException("球隊評分必須在0到1之間: " + teamName);
+        }
+        return rating;
+    }
+
+    // 取得球隊代碼，例如 "LAD 洛杉磯道奇" -> "LAD"
+    static String teamCode(String teamName) {
+        int space = teamName.indexOf(' ');
+        return space < 0 ? teamName : teamName.substring(0, space);
+    }
+
+    // log5 公式：評分 a 的球隊對上評分 b 的球隊的勝率
+    static double log5(double a, double b) {
+        return a * (1 - b) / (a * (1 - b) + b * (1 - a));
+    }
+
+    // 執行指定次數的模擬，相同種子必定得到相同結果
+    SimulationResult simulate(long iterations, long rngSeed, ForkJoinPool pool) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("模擬次數必須大於0");
+        }
+        return pool.invoke(new SimulationTask(0, iterations, new SplittableRandom(rngSeed)));
+    }
+
+    // 分治模擬任務：每次切分都從父亂數流 split 出獨立子流
+    private final class SimulationTask extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+        private final long from;
+        private final long to;
+        private final SplittableRandom random;
+
+        SimulationTask(long from, long to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= LEAF_ITERATIONS) {
+                SimulationResult result = new SimulationResult(teamCount, sketchBits);
+                runIterations(to - from, random, result);
+                return result;
+            }
+            long mid = from + (to - from) / 2;
+            SimulationTask right = new SimulationTask(mid, to, random.split());
+            SimulationTask left = new SimulationTask(from, mid, random);
+            right.fork();
+            SimulationResult result = left.compute();
+            result.merge(right.join());
+            return result;
+        }
+    }
+
+    // 在單一執行緒內連續模擬多次季後賽：每個聯盟外卡賽 3 對 6、4 對 5，分區系列賽 1 對（4/5 勝者）、
+    // 2 對（3/6 勝者），之後聯盟冠軍賽與世界大賽；從缺的種子讓對手直接晉級
+    private void runIterations(long count, SplittableRandom random, SimulationResult result) {
+        double[] revenue = new double[teamCount];
+        int[] champions = new int[BracketModel.LEAGUES.length];
+        for (long i = 0; i < count; i++) {
+            Arrays.fill(revenue, 0);
+            for (int l = 0; l < champions.length; l++) {
+                int wildCardA = series(0, bracket.team(l, 2), bracket.team(l, 5), random, revenue, result);
+                int wildCardB = series(0, bracket.team(l, 3), bracket.team(l, 4), random, revenue, result);
+                int divisionA = series(1, bracket.team(l, 0), wildCardB, random, revenue, result);
+                int divisionB = series(1, bracket.team(l, 1), wildCardA, random, revenue, result);
+                champions[l] = series(2, divisionA, divisionB, random, revenue, result);
+            }
+            int champion = series(3, champions[0], champions[1], random, revenue, result);
+            if (champion >= 0) {
+                result.reached[champion * (ROUNDS + 1) + ROUNDS]++;
+            }
+            result.record(revenue);
+        }
+    }
+
+    // 一組對戰位置：記錄打進本輪的球隊，雙方都在時模擬系列賽，回傳晉級的球隊（兩邊都從缺時為 -1）
+    private int series(int round, int a, int b, SplittableRandom random, double[] revenue, SimulationResult result) {
+        if (a >= 0) {
+            result.reached[a * (ROUNDS + 1) + round]++;
+        }
+        if (b >= 0) {
+            result.reached[b * (ROUNDS + 1) + round]++;
+        }
+        if (a < 0 || b < 0) {
+            return a < 0 ? b : a;
+        }
+        return playSeries(round, a, b, random, revenue);
+    }
+
+    // 模擬單一系列賽並累加雙方收益，回傳勝隊索引；主場依賽制的主場分配決定
+    private int playSeries(int round, int a, int b, SplittableRandom random, double[] revenue) {
+        int high = bracket.higherSeed(a, b, round) ? a : b;
+        int low = high == a ? b : a;
+        double game = bracket.winProbability(high, low);
+        double highWinsAtHome = clamp(game + homeAdvantage);
+        double highWinsAway = clamp(game - homeAdvantage);
+        int highWins = 0;
+        int lowWins = 0;
+        SeriesFormat format = rounds[round];
+        int need = format.winsNeeded();
+        for (int g = 0; highWins < need && lowWins < need; g++) {
+            boolean highHome = format.isHigherSeedHome(g);
+            int home = highHome ? high : low;
+            int away = highHome ? low : high;
+            int cell = model.index(round, g, GameRevenueModel.status(highWins, lowWins, need));
+            revenue[home] += homeRevenue[home * tableSize + cell];
+            revenue[away] += awayRevenue[away * tableSize + cell];
+            if (random.nextDouble() < (highHome ? highWinsAtHome : highWinsAway)) {
+                highWins++;
+            } else {
+                lowWins++;
+            }
+        }
+        return highWins == need ? high : low;
+    }
+
+    private static double clamp(double p) {
+        return Math.max(0.001, Math.min(0.999, p));
+    }
+
+    // 模擬結果：每支球隊的收益分佈摘要與各輪晉級次數，可合併；記憶體與模擬次數無關
+    static final class SimulationResult {
+        long iterations;
+        final RevenueDistribution[] revenue;
+        final long[] reached; // [team * (ROUNDS + 1) + round]，最後一格為奪冠次數
+
+        SimulationResult(int teamCount, int sketchBits) {
+            revenue = new RevenueDistribution[teamCount];
+            for (int t = 0; t < teamCount; t++) {
+                revenue[t] = new RevenueDistribution(sketchBits);
+            }
+            reached = new long[teamCount * (ROUNDS + 1)];
+        }
+
+        void record(double[] values) {
+            iterations++;
+            for (int t = 0; t < values.length; t++) {
+                revenue[t].record(values[t]);
+            }
+        }
+
+        void merge(SimulationResult other) {
+            iterations += other.iterations;
+            for (int t = 0; t < revenue.length; t++) {
+                revenue[t].merge(other.revenue[t]);
+            }
+            for (int i = 0; i < reached.length; i++) {
+                reached[i] += other.reached[i];
+            }
+        }
+
+        double mean(int team) {
+            return revenue[team].mean();
+        }
+
+        double standardDeviation(int team) {
+            return revenue[team].standardDeviation();
+        }
+
+        double reachProbability(int team, int round) {
+            return (double) reached[team * (ROUNDS + 1) + round] / iterations;
+        }
+    }
+
+    // 依球隊名稱取得模擬收益分佈，供 PostseasonRevenue3 報表列出
+    Map<String, RevenueDistribution> distributions(SimulationResult result) {
+        Map<String, RevenueDistribution> distributions = new HashMap<>();
+        for (int t = 0; t < teamCount; t++) {
+            distributions.put(names[t], result.revenue[t]);
+        }
+        return distributions;
+    }
+
+    // 打印每支球隊的收益分佈
+    void printResult(SimulationResult result) {
+        for (int t = 0; t < teamCount; t++) {
+            if (bracket.league(t) < 0) {
+                System.out.printf("%nTeam 隊伍: %s (未進季後賽)%n", names[t]);
+                continue;
+            }
+            System.out.printf("%nTeam 隊伍: %s (%s 第 %d 種子)%n", names[t],
+                    BracketModel.LEAGUE_NAMES[bracket.league(t)], bracket.seed(t));
+            System.out.printf("  期望收益 : $%.2f 美元 (標準差 $%.2f)%n", result.mean(t), result.standardDeviation(t));
+            System.out.printf("  最低收益 : $%.2f 美元, 最高收益 : $%.2f 美元%n",
+                    result.revenue[t].min(), result.revenue[t].max());
+            System.out.printf("  收益 P5 : $%.2f 美元, P50 : $%.2f 美元, P95 : $%.2f 美元%n",
+                    result.revenue[t].quantile(0.05), result.revenue[t].quantile(0.50), result.revenue[t].quantile(0.95));
+            for (int r = 0; r < ROUNDS; r++) {
+                System.out.printf("  進入%s機率 : %.4f%n", ROUND_NAMES[r], result.reachProbability(t, r));
+            }
+            System.out.printf("  奪冠機率 : %.4f%n", result.reachProbability(t, ROUNDS));
+        }
+    }
+
+    // 主方法：參數依序為模擬次數與亂數種子，未指定時使用 sim.iterations / sim.seed
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            PostseasonRevenue3 revenue = new PostseasonRevenue3(props);
+            List<Team3> teams = PostseasonRevenue3.loadConfiguredTeams(props).toTeams();
+
+            long iterations = args.length > 0 ? Long.parseLong(args[0])
+                    : Long.parseLong(props.getProperty("sim.iterations", "10000000"));
+            long rngSeed = args.length > 1 ? Long.parseLong(args[1])
+                    : Long.parseLong(props.getProperty("sim.seed", "20241003"));
+
+            PostseasonSimulator simulator = new PostseasonSimulator(revenue, teams, props);
+            long start = System.nanoTime();
+            SimulationResult result = simulator.simulate(iterations, rngSeed, ForkJoinPool.commonPool());
+            long elapsed = System.nanoTime() - start;
+
+            // 固定情境的最差 / 最好收益與模擬分位數並列（格式與輸出位置依 report.format / report.output）
+            try (RevenueReportWriter report = RevenueReportWriter.open(props)) {
+                revenue.calculateAndPrintRevenues(teams, report, simulator.distributions(result));
+            }
+            simulator.printResult(result);
+            System.out.printf("%n模擬 %d 次，耗時 %.3f 秒（%d 個執行緒）%n",
+                    result.iterations, elapsed / 1e9, ForkJoinPool.commonPool().getParallelism());
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        }
+    }
+}
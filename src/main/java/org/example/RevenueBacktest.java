@@ -0,0 +1,199 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 多季回測：目錄下每個球隊資料檔（.json / .ndjson / 快照 .bin）視為一季，沒有任何有效球隊的檔案列出後略過；
+// 以 I/O 執行緒池並行讀檔、讀完的季立即交給計算執行緒池，讀檔與計算重疊進行；
+// 最後依球隊代碼（例如 LAD）彙總各季收益的總計、平均與百分位數
+public final class RevenueBacktest {
+    private static final double[] PERCENTILES = {0.10, 0.50, 0.90};
+    private static final String[] PERCENTILE_LABELS = {"P10", "中位數", "P90"};
+
+    // 一季的計算結果
+    static final class SeasonResult {
+        final String season;
+        final TeamTable teams;
+        final double[] revenues; // [scenario * teams + team]
+
+        SeasonResult(String season, TeamTable teams, double[] revenues) {
+            this.season = season;
+            this.teams = teams;
+            this.revenues = revenues;
+        }
+    }
+
+    private final PostseasonRevenue3 revenue;
+    private final RevenueScenarios scenarios;
+    private final int ioThreads;
+
+    public RevenueBacktest(Properties props) {
+        this.revenue = new PostseasonRevenue3(props);
+        this.scenarios = revenue.reportScenarios;
+        this.ioThreads = Math.max(1, PostseasonRevenue3.getIntProperty(props, "backtest.io.threads", 4));
+    }
+
+    // 找出目錄下所有球隊資料檔，依相對路徑排序
+    static List<Path> seasonFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.endsWith(".json") || name.endsWith(".ndjson") || name.endsWith(".bin");
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // 季名稱：相對路徑去掉副檔名，例如 Xresources/teams
+    static String seasonName(Path directory, Path file) {
+        String relative = directory.relativize(file).toString().replace('\\', '/');
+        int dot = relative.lastIndexOf('.');
+        return dot > 0 ? relative.substring(0, dot) : relative;
+    }
+
+    // 並行載入與計算所有季；讀取失敗或沒有有效球隊的季列出後略過，回傳依季名稱排序的結果
+    public List<SeasonResult> run(Path directory) throws IOException {
+        List<Path> files = seasonFiles(directory);
+        ExecutorService io = Executors.newFixedThreadPool(Math.min(ioThreads, Math.max(1, files.size())));
+        ForkJoinPool compute = ForkJoinPool.commonPool();
+        try {
+            List<CompletableFuture<SeasonResult>> pending = new ArrayList<>(files.size());
+            for (Path file : files) {
+                String season = seasonName(directory, file);
+                pending.add(CompletableFuture
+                        .supplyAsync(() -> load(file), io)
+                        .thenApplyAsync(teams -> new SeasonResult(season, teams, revenue.calculateAll(teams, scenarios)), compute)
+                        .exceptionally(e -> {
+                            Throwable cause = e.getCause() != null ? e.getCause() : e;
+                            System.err.println("略過 " + season + ": " + cause.getMessage());
+                            return null;
+                        }));
+            }
+            List<SeasonResult> results = new ArrayList<>(files.size());
+            for (CompletableFuture<SeasonResult> future : pending) {
+                SeasonResult result = future.join();
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+            return results;
+        } finally {
+            io.shutdown();
+        }
+    }
+
+    // 所有記錄都被略過的檔案（例如帳本的比賽結果檔）不是球隊資料，不能當成 0 支球隊的一季彙總
+    private static TeamTable load(Path file) {
+        TeamTable teams;
+        try {
+            teams = PostseasonRevenue3.loadTeams(file.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (teams.size() == 0) {
+            throw new IllegalArgumentException("沒有有效的球隊資料");
+        }
+        return teams;
+    }
+
+    // 依球隊代碼彙總：franchise → [scenario] 各季收益
+    Map<String, double[][]> aggregate(List<SeasonResult> results) {
+        Map<String, List<double[]>> bySeason = new TreeMap<>();
+        for (SeasonResult result : results) {
+            int n = result.teams.size();
+            for (int t = 0; t < n; t++) {
+                double[] values = new double[scenarios.size()];
+                for (int s = 0; s < values.length; s++) {
+                    values[s] = result.revenues[s * n + t];
+                }
+                bySeason.computeIfAbsent(PostseasonSimulator.teamCode(result.teams.name(t)), k -> new ArrayList<>())
+                        .add(values);
+            }
+        }
+        Map<String, double[][]> franchises = new TreeMap<>();
+        for (Map.Entry<String, List<double[]>> entry : bySeason.entrySet()) {
+            List<double[]> seasons = entry.getValue();
+            double[][] byScenario = new double[scenarios.size()][seasons.size()];
+            for (int i = 0; i < seasons.size(); i++) {
+                for (int s = 0; s < scenarios.size(); s++) {
+                    byScenario[s][i] = seasons.get(i)[s];
+                }
+            }
+            for (double[] values : byScenario) {
+                Arrays.sort(values);
+            }
+            franchises.put(entry.getKey(), byScenario);
+        }
+        return franchises;
+    }
+
+    // 線性內插百分位數（values 已排序）
+    static double percentile(double[] values, double q) {
+        if (values.length == 1) {
+            return values[0];
+        }
+        double position = q * (values.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = Math.min(values.length - 1, lower + 1);
+        return values[lower] + (values[upper] - values[lower]) * (position - lower);
+    }
+
+    void print(Map<String, double[][]> franchises, RevenueReportWriter report) {
+        for (Map.Entry<String, double[][]> entry : franchises.entrySet()) {
+            double[][] byScenario = entry.getValue();
+            report.team(entry.getKey() + " (" + byScenario[0].length + " 季)");
+            for (int s = 0; s < scenarios.size(); s++) {
+                double[] values = byScenario[s];
+                double total = 0;
+                for (double value : values) {
+                    total += value;
+                }
+                report.section(scenarios.name(s));
+                report.amount("總計", total);
+                report.amount("平均", total / values.length);
+                for (int p = 0; p < PERCENTILES.length; p++) {
+                    report.amount(PERCENTILE_LABELS[p], percentile(values, PERCENTILES[p]));
+                }
+            }
+        }
+    }
+
+    // 主方法：參數為季資料目錄（預設 backtest.dir），報表格式與輸出位置依 report.format / report.output
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            RevenueMetrics.dumpOnExit(props);
+            Path directory = Path.of(args.length > 0 ? args[0] : props.getProperty("backtest.dir", "src/main/resources/seasons"));
+            RevenueBacktest backtest = new RevenueBacktest(props);
+            long start = System.nanoTime();
+            int files = seasonFiles(directory).size();
+            List<SeasonResult> results = backtest.run(directory);
+            Map<String, double[][]> franchises = backtest.aggregate(results);
+            try (RevenueReportWriter report = RevenueReportWriter.open(props)) {
+                backtest.print(franchises, report);
+            }
+            System.err.printf("回測 %d 季（略過 %d 個檔案）、%d 支球隊，耗時 %.1f 毫秒%n",
+                    results.size(), files - results.size(), franchises.size(), (System.nanoTime() - start) / 1e6);
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 批次模式：找出目錄下所有（config.properties, 球隊資料）情境組合，經過解析、驗證、計算、輸出四個階段的管線處理
+//
+// 每個目錄中的 config.properties 與同目錄的 teams.bin / teams.ndjson / teams.json 構成一個情境。
+// 階段之間以有上限的佇列相連，下游來不及處理時上游的 put 會阻塞（背壓），同時在記憶體中的情境數有上限；
+// 每個階段的執行緒數可分別設定。任何情境的檔案有誤（例如 Xresources 的 "four milion" 票價）只會被列出並略過。
+public final class RevenueBatch {
+    static final String[] TEAM_FILES = {"teams.bin", "teams.ndjson", "teams.json"};
+    static final String[] STAGES = {"parse", "validate", "compute", "render"};
+
+    // 管線中的一個情境，各階段依序填入欄位
+    static final class Job {
+        final String scenario;
+        final Path config;
+        final Path teamsFile;
+        Properties props;
+        TeamTable teams;
+        PostseasonRevenue3 revenue;
+        RevenueScenarios scenarios;
+        RevenueReportWriter.Format format;
+        MoneyFormat money;
+        double[] revenues; // [scenario * teams + team]
+        Path output;
+
+        Job(String scenario, Path config, Path teamsFile) {
+            this.scenario = scenario;
+            this.config = config;
+            this.teamsFile = teamsFile;
+        }
+    }
+
+    // 被略過的情境
+    static final class Failure {
+        final String scenario;
+        final String stage;
+        final String message;
+
+        Failure(String scenario, String stage, String message) {
+            this.scenario = scenario;
+            this.stage = stage;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return scenario + "（" + stage + "）: " + message;
+        }
+    }
+
+    private interface Step {
+        void apply(Job job) throws IOException;
+    }
+
+    private static final Job END = new Job(null, null, null); // 佇列結束標記
+
+    private final int[] threads = new int[STAGES.length];
+    private final int queueCapacity;
+    private final Path outputDirectory;
+    private final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+    private final List<Job> completed = Collections.synchronizedList(new ArrayList<>());
+
+    public RevenueBatch(Properties props) {
+        for (int i = 0; i < STAGES.length; i++) {
+            int value = PostseasonRevenue3.getIntProperty(props, "batch.threads." + STAGES[i], 1);
+            if (value < 0) {
+                throw new IllegalArgumentException("batch.threads." + STAGES[i] + " 不能為負數");
+            }
+            threads[i] = value == 0 ? Runtime.getRuntime().availableProcessors() : value;
+        }
+        this.queueCapacity = PostseasonRevenue3.getIntProperty(props, "batch.queue.capacity", 8);
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("batch.queue.capacity 必須大於0");
+        }
+        this.outputDirectory = Path.of(props.getProperty("batch.output", "target/batch"));
+    }
+
+    // 找出目錄下所有情境：每個 config.properties 配上同目錄的球隊資料，依路徑排序
+    static List<Job> discover(Path directory) throws IOException {
+        List<Path> configs;
+        try (Stream<Path> files = Files.walk(directory)) {
+            configs = files.filter(path -> path.getFileName().toString().equals("config.properties"))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        List<Job> jobs = new ArrayList<>(configs.size());
+        for (Path config : configs) {
+            Path dir = config.getParent();
+            Path teams = null;
+            for (String name : TEAM_FILES) {
+                if (Files.isRegularFile(dir.resolve(name))) {
+                    teams = dir.resolve(name);
+                    break;
+                }
+            }
+            // 快照與同目錄的 JSON 來源不一致時改用 JSON
+            if (teams != null && teams.getFileName().toString().equals(TEAM_FILES[0])) {
+                for (int i = 1; i < TEAM_FILES.length; i++) {
+                    Path source = dir.resolve(TEAM_FILES[i]);
+                    if (Files.isRegularFile(source)) {
+                        if (!TeamSnapshot.isCurrent(teams, source)) {
+                            teams = source;
+                        }
+                        break;
+                    }
+                }
+            }
+            jobs.add(new Job(scenarioName(directory, dir), config, teams));
+        }
+        return jobs;
+    }
+
+    // 情境名稱：相對於批次目錄的路徑，批次目錄本身則使用其目錄名稱
+    static String scenarioName(Path directory, Path dir) {
+        String relative = directory.relativize(dir).toString().replace('\\', '/');
+        if (relative.isEmpty()) {
+            Path name = directory.toAbsolutePath().normalize().getFileName();
+            return name == null ? "root" : name.toString();
+        }
+        return relative;
+    }
+
+    // 執行整個批次，回傳成功完成的情境（依名稱排序）；失敗的情境可由 failures() 取得
+    public List<Job> run(List<Job> jobs) throws IOException, InterruptedException {
+        Files.createDirectories(outputDirectory);
+        List<BlockingQueue<Job>> queues = new ArrayList<>();
+        for (int i = 0; i < STAGES.length; i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+        Step[] steps = {this::parse, this::validate, this::compute, this::render};
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < STAGES.length; i++) {
+            String stage = STAGES[i];
+            Step step = steps[i];
+            BlockingQueue<Job> in = queues.get(i);
+            BlockingQueue<Job> out = i + 1 < STAGES.length ? queues.get(i + 1) : null;
+            AtomicInteger running = new AtomicInteger(threads[i]);
+            for (int w = 0; w < threads[i]; w++) {
+                Thread worker = new Thread(() -> work(stage, step, in, out, running), "batch-" + stage + "-" + (w + 1));
+                worker.start();
+                workers.add(worker);
+            }
+        }
+        try {
+            for (Job job : jobs) {
+                queues.get(0).put(job); // 佇列滿時在此等待，不會一次讀入所有情境
+            }
+            queues.get(0).put(END);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } finally {
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+        }
+        List<Job> results = new ArrayList<>(completed);
+        results.sort((a, b) -> a.scenario.compareTo(b.scenario));
+        return results;
+    }
+
+    public List<Failure> failures() {
+        List<Failure> list = new ArrayList<>(failures);
+        list.sort((a, b) -> a.scenario.compareTo(b.scenario));
+        return list;
+    }
+
+    // 階段的工作執行緒：取到結束標記時放回讓同階段的其他執行緒也能結束，最後一個結束的執行緒通知下游
+    //
+    // 任何 RuntimeException（包括程式錯誤造成的 NullPointerException）都只讓該情境失敗；
+    // 執行緒無論如何結束都會在 finally 中遞減計數並交出結束標記，下游與 run() 不會永遠等待
+    private void work(String stage, Step step, BlockingQueue<Job> in, BlockingQueue<Job> out, AtomicInteger running) {
+        try {
+            while (true) {
+                Job job = in.take();
+                if (job == END) {
+                    in.put(END);
+                    break;
+                }
+                try {
+                    step.apply(job);
+                } catch (IOException | RuntimeException e) {
+                    String message = e.getMessage() != null ? e.getMessage() : e.toString();
+                    Failure failure = new Failure(job.scenario, stage, message);
+                    failures.add(failure);
+                    System.err.println("略過 " + failure);
+                    continue;
+                }
+                if (out != null) {
+                    out.put(job);
+                } else {
+                    completed.add(job);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (running.decrementAndGet() == 0 && out != null) {
+                try {
+                    out.put(END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // 解析：讀取設定檔與球隊資料
+    private void parse(Job job) throws IOException {
+        if (job.teamsFile == null) {
+            throw new IOException("找不到球隊資料（" + String.join(" / ", TEAM_FILES) + "）");
+        }
+        Properties props = new Properties();
+        try (InputStream input = Files.newInputStream(job.config)) {
+            props.load(input);
+        }
+        job.props = props;
+        job.teams = PostseasonRevenue3.loadTeams(job.teamsFile.toString());
+    }
+
+    // 驗證：解析票價、分成比例、賽制與報表格式，任何無效的數值都在這裡被擋下
+    private void validate(Job job) {
+        if (job.teams.size() == 0) {
+            throw new IllegalArgumentException("沒有有效的球隊資料");
+        }
+        job.revenue = new PostseasonRevenue3(job.props);
+        job.scenarios = job.revenue.reportScenarios;
+        job.format = RevenueReportWriter.Format.parse(job.props.getProperty("report.format", "text"));
+        job.money = new MoneyFormat(job.props.getProperty("currency.format", "$#,##0.00"));
+    }
+
+    // 計算：批次收益核心一次算出所有球隊 × 情境
+    private void compute(Job job) {
+        job.revenues = job.revenue.calculateAll(job.teams, job.scenarios);
+    }
+
+    // 輸出：每個情境一個檔案，名稱為情境名稱（/ 換成 _）加上格式的副檔名
+    private void render(Job job) throws IOException {
+        String extension = job.format == RevenueReportWriter.Format.TEXT ? "txt"
+                : job.format == RevenueReportWriter.Format.CSV ? "csv" : "jsonl";
+        job.output = outputDirectory.resolve(job.scenario.replace('/', '_') + "." + extension);
+        FileChannel channel = FileChannel.open(job.output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try (RevenueReportWriter report = new RevenueReportWriter(channel, true, job.format, job.money)) {
+            int n = job.teams.size();
+            for (int t = 0; t < n; t++) {
+                report.team(job.teams.name(t));
+                for (int s = 0; s < job.scenarios.size(); s++) {
+                    report.amount(job.scenarios.name(s), job.revenues[s * n + t]);
+                }
+            }
+        }
+        // 已寫出的情境只保留名稱與輸出路徑，完成數量再多也不會累積球隊資料與結果
+        job.props = null;
+        job.teams = null;
+        job.revenues = null;
+    }
+
+    // 主方法：參數為情境目錄（預設 batch.dir）
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            Path directory = Path.of(args.length > 0 ? args[0] : props.getProperty("batch.dir", "src/main/resources"));
+            RevenueBatch batch = new RevenueBatch(props);
+            long start = System.nanoTime();
+            List<Job> jobs = discover(directory);
+            List<Job> results = batch.run(jobs);
+            for (Job job : results) {
+                System.out.println(job.scenario + " -> " + job.output);
+            }
+            List<Failure> failures = batch.failures();
+            System.out.printf("批次完成：%d 個情境，成功 %d、略過 %d，耗時 %.1f 毫秒%n",
+                    jobs.size(), results.size(), failures.size(), (System.nanoTime() - start) / 1e6);
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
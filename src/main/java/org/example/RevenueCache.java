@@ -0,0 +1,236 @@
+package org.example;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// 有容量上限的並行結果快取，鍵應涵蓋結果所依賴的設定與資料（例如快照指紋）
+//
+// 分段的 LRU 加上 TinyLFU 准入：每次存取都記入 count-min 頻率草圖，段落已滿時，
+// 新項目的頻率必須高於最久未用的項目才會取代它，避免一次性的查詢把常用結果擠出快取。
+// 設定改變後舊項目自然不再命中，也可用 invalidateIf 主動清除。
+public final class RevenueCache<K, V> {
+    private static final int SEGMENTS = 16;
+
+    // 快取統計
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;     // 因容量被取代的項目
+        public final long rejections;    // 頻率不足未被接納的新項目
+        public final long invalidations; // 主動清除的項目
+        public final long size;
+
+        Stats(long hits, long misses, long evictions, long rejections, long invalidations, long size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.rejections = rejections;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("命中 %d、未命中 %d（命中率 %.1f%%）、取代 %d、拒絕 %d、清除 %d、項目 %d",
+                    hits, misses, hitRate() * 100, evictions, rejections, invalidations, size);
+        }
+    }
+
+    private final Segment<K, V>[] segments;
+    private final FrequencySketch sketch;
+    private final long maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public RevenueCache(long maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("快取容量必須大於0");
+        }
+        this.maxEntries = maxEntries;
+        // 項目很少時減少段落數，每個段落至少要有一個位置
+        int count = Integer.highestOneBit((int) Math.min(SEGMENTS, maxEntries));
+        int perSegment = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (maxEntries + count - 1) / count));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    public long maxEntries() {
+        return maxEntries;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private Segment<K, V> segment(int hash) {
+        return segments[hash & (segments.length - 1)];
+    }
+
+    // 查詢；沒有時以 loader 計算並嘗試放入（計算時不持有鎖，並行的相同查詢可能各算一次）
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        int hash = hash(key);
+        sketch.increment(hash);
+        Segment<K, V> segment = segment(hash);
+        V value;
+        synchronized (segment) {
+            value = segment.map.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        V computed = loader.apply(key);
+        put(segment, key, hash, computed);
+        return computed;
+    }
+
+    private void put(Segment<K, V> segment, K key, int hash, V value) {
+        synchronized (segment) {
+            Map<K, V> map = segment.map;
+            if (map.size() < segment.capacity || map.containsKey(key)) {
+                map.put(key, value);
+                return;
+            }
+            Iterator<K> eldest = map.keySet().iterator();
+            K victim = eldest.next();
+            if (sketch.frequency(hash) > sketch.frequency(hash(victim))) {
+                eldest.remove();
+                map.put(key, value);
+                evictions.increment();
+            } else {
+                rejections.increment();
+            }
+        }
+    }
+
+    // 清除符合條件的項目，例如設定重新載入後已不可能再命中的指紋，回傳清除的數量
+    public long invalidateIf(Predicate<? super K> stale) {
+        long removed = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                Iterator<K> keys = segment.map.keySet().iterator();
+                while (keys.hasNext()) {
+                    if (stale.test(keys.next())) {
+                        keys.remove();
+                        removed++;
+                    }
+                }
+            }
+        }
+        invalidations.add(removed);
+        return removed;
+    }
+
+    public void clear() {
+        invalidateIf(key -> true);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), rejections.sum(), invalidations.sum(), size());
+    }
+
+    // 一個段落：依存取順序排列的 LinkedHashMap，最前面是最久未用的項目
+    private static final class Segment<K, V> {
+        final int capacity;
+        final LinkedHashMap<K, V> map;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<>(Math.min(capacity, 1 << 16) * 4 / 3 + 1, 0.75f, true);
+        }
+    }
+
+    // count-min 頻率草圖：4 列、每格 4 位元計數（上限 15），累計次數達容量 10 倍時全部減半讓舊熱度退場
+    //
+    // 計數與減半都以 compareAndSet 更新整個 long，並行的 increment 與 reset 不會互相覆蓋對方寫入的計數
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {0x97cb3127L, 0xc2b2ae35L, 0x27d4eb2fL, 0x165667b1L};
+        private final AtomicLongArray table;   // 每個 long 存 16 個 4 位元計數
+        private final int mask;
+        private final long sampleSize;
+        private final AtomicLong additions = new AtomicLong();
+
+        FrequencySketch(long maxEntries) {
+            int counters = Integer.highestOneBit((int) Math.min(1 << 26, Math.max(64, maxEntries * 4)) - 1) << 1;
+            this.table = new AtomicLongArray(counters / 16);
+            this.mask = counters - 1;
+            this.sampleSize = Math.max(10, maxEntries * 10);
+        }
+
+        private int index(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        int frequency(int hash) {
+            int frequency = 15;
+            for (int row = 0; row < 4; row++) {
+                int i = index(hash, row);
+                frequency = Math.min(frequency, (int) ((table.get(i >>> 4) >>> ((i & 15) << 2)) & 0xF));
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < 4; row++) {
+                int i = index(hash, row);
+                int shift = (i & 15) << 2;
+                while (true) {
+                    long word = table.get(i >>> 4);
+                    if (((word >>> shift) & 0xF) == 15) {
+                        break;
+                    }
+                    if (table.compareAndSet(i >>> 4, word, word + (1L << shift))) {
+                        added = true;
+                        break;
+                    }
+                }
+            }
+            if (added && additions.incrementAndGet() >= sampleSize) {
+                reset();
+            }
+        }
+
+        // 同一時間只有一條執行緒減半；其他執行緒在減半期間的 increment 同樣以 compareAndSet 寫入，不會遺失
+        private synchronized void reset() {
+            if (additions.get() < sampleSize) {
+                return;
+            }
+            for (int i = 0; i < table.length(); i++) {
+                table.getAndUpdate(i, word -> (word >>> 1) & 0x7777777777777777L);
+            }
+            additions.set(0);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// 定價提案比較：球隊資料只載入一次並由所有提案共用，每個提案設定檔各自作為一個子任務並行計算，
+// 最後輸出每支球隊在每個報表情境下，各提案相對於基準設定的收益差額
+//
+// 提案檔疊加在基準 config.properties 之上（new Properties(基準)），只需寫出要改的項目。
+// 所有子任務在同一個範圍內啟動並等待結束：任一提案解析或計算失敗只會讓該提案被列出並略過，
+// 逾時（compare.timeout.seconds）未完成的提案會被取消；呼叫端被中斷時所有子任務一併取消。
+// 球隊欄位表在建立後不再修改，各子任務只讀取，因此記憶體不隨提案數增加（只多出各自的結果陣列）。
+public final class RevenueCompare {
+
+    // 一個提案的計算結果
+    static final class Variant {
+        final String name;
+        final RevenueScenarios scenarios;
+        final double[] revenues; // [scenario * teams + team]
+
+        Variant(String name, RevenueScenarios scenarios, double[] revenues) {
+            this.name = name;
+            this.scenarios = scenarios;
+            this.revenues = revenues;
+        }
+
+        // 依名稱找出情境，找不到時回傳 -1
+        int scenario(String name) {
+            for (int s = 0; s < scenarios.size(); s++) {
+                if (scenarios.name(s).equals(name)) {
+                    return s;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // 被略過的提案
+    static final class Failure {
+        final String variant;
+        final String message;
+
+        Failure(String variant, String message) {
+            this.variant = variant;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return variant + ": " + message;
+        }
+    }
+
+    private final Properties base;
+    private final TeamTable teams;
+    private final int threads;
+    private final long timeoutSeconds;
+    private final List<Failure> failures = new ArrayList<>();
+
+    public RevenueCompare(Properties base, TeamTable teams) {
+        this.base = base;
+        this.teams = teams;
+        int configured = PostseasonRevenue3.getIntProperty(base, "compare.threads", 0);
+        if (configured < 0) {
+            throw new IllegalArgumentException("compare.threads 不能為負數");
+        }
+        this.threads = configured == 0 ? Runtime.getRuntime().availableProcessors() : configured;
+        this.timeoutSeconds = PostseasonRevenue3.getIntProperty(base, "compare.timeout.seconds", 60);
+        if (timeoutSeconds <= 0) {
+            throw new IllegalArgumentException("compare.timeout.seconds 必須大於0");
+        }
+    }
+
+    // 以基準設定計算
+    public Variant baseline() {
+        return evaluate("baseline", base);
+    }
+
+    // 依同一份球隊資料計算一組設定的報表情境收益
+    Variant evaluate(String name, Properties props) {
+        PostseasonRevenue3 revenue = new PostseasonRevenue3(props);
+        return new Variant(name, revenue.reportScenarios, revenue.calculateAll(teams, revenue.reportScenarios));
+    }
+
+    // 讀取提案檔，未設定的項目沿用基準設定
+    Properties overlay(Path file) throws IOException {
+        Properties props = new Properties(base);
+        try (InputStream input = Files.newInputStream(file)) {
+            props.load(input);
+        }
+        return props;
+    }
+
+    // 並行計算所有提案，回傳成功的結果（依提案順序）；失敗或逾時的提案可由 failures() 取得
+    public List<Variant> run(List<Path> files) throws InterruptedException {
+        List<Callable<Variant>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(() -> evaluate(variantName(file), overlay(file)));
+        }
+        List<Variant> results = new ArrayList<>(files.size());
+        if (tasks.isEmpty()) {
+            return results;
+        }
+        ExecutorService scope = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+        try {
+            // invokeAll 等到所有子任務結束或逾時，逾時的子任務會被取消
+            List<Future<Variant>> futures = scope.invokeAll(tasks, timeoutSeconds, TimeUnit.SECONDS);
+            for (int i = 0; i < futures.size(); i++) {
+                String name = variantName(files.get(i));
+                try {
+                    results.add(futures.get(i).get());
+                } catch (CancellationException e) {
+                    fail(name, "超過 " + timeoutSeconds + " 秒未完成");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    fail(name, cause.getMessage());
+                }
+            }
+        } finally {
+            scope.shutdownNow();
+        }
+        return results;
+    }
+
+    private void fail(String variant, String message) {
+        Failure failure = new Failure(variant, message);
+        failures.add(failure);
+        System.err.println("略過 " + failure);
+    }
+
+    public List<Failure> failures() {
+        return new ArrayList<>(failures);
+    }
+
+    // 提案名稱：檔名去掉 .properties
+    static String variantName(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".properties") ? name.substring(0, name.length() - ".properties".length()) : name;
+    }
+
+    // 差異報表：每支球隊每個基準情境列出基準收益，再列出各提案的收益與差額（提案沒有同名情境時略過）
+    public void report(Variant baseline, List<Variant> variants, RevenueReportWriter report) {
+        int n = teams.size();
+        int[][] columns = new int[variants.size()][baseline.scenarios.size()];
+        for (int v = 0; v < variants.size(); v++) {
+            for (int s = 0; s < baseline.scenarios.size(); s++) {
+                columns[v][s] = variants.get(v).scenario(baseline.scenarios.name(s));
+            }
+        }
+        for (int t = 0; t < n; t++) {
+            report.team(teams.name(t));
+            for (int s = 0; s < baseline.scenarios.size(); s++) {
+                String label = baseline.scenarios.name(s);
+                double before = baseline.revenues[s * n + t];
+                report.amount(label, before);
+                for (int v = 0; v < variants.size(); v++) {
+                    int column = columns[v][s];
+                    if (column < 0) {
+                        continue;
+                    }
+                    double after = variants.get(v).revenues[column * n + t];
+                    report.pair(label + " [" + variants.get(v).name + "]", "收益", after, "差額", after - before);
+                }
+            }
+            report.line("");
+        }
+    }
+
+    // 主方法：參數為提案設定檔，未指定時使用 compare.configs（逗號分隔）
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            RevenueMetrics.dumpOnExit(props);
+            List<Path> files = new ArrayList<>();
+            if (args.length > 0) {
+                for (String arg : args) {
+                    files.add(Path.of(arg));
+                }
+            } else {
+                for (String file : props.getProperty("compare.configs", "").split(",")) {
+                    if (!file.trim().isEmpty()) {
+                        files.add(Path.of(file.trim()));
+                    }
+                }
+            }
+            if (files.isEmpty()) {
+                throw new IllegalArgumentException("沒有指定要比較的提案設定檔（參數或 compare.configs）");
+            }
+
+            long start = System.nanoTime();
+            RevenueCompare compare = new RevenueCompare(props, PostseasonRevenue3.loadConfiguredTeams(props));
+            Variant baseline = compare.baseline();
+            List<Variant> variants = compare.run(files);
+            try (RevenueReportWriter report = RevenueReportWriter.open(props)) {
+                compare.report(baseline, variants, report);
+            }
+            System.err.printf("比較完成：%d 個提案，成功 %d、略過 %d，耗時 %.1f 毫秒%n", files.size(), variants.size(),
+                    compare.failures().size(), (System.nanoTime() - start) / 1e6);
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
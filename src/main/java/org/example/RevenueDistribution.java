@@ -0,0 +1,173 @@
+package org.example;
+
+// 收益分佈的串流摘要：Welford 平均數 / 變異數、最小 / 最大值與對數分桶的分位數草圖，可合併
+//
+// 分桶直接取 double 的指數與尾數前 subBits 位元（與 RevenueMetrics.Histogram 相同的對數-線性分桶），
+// 分位數回傳分桶中點，相對誤差不超過 2^-(subBits+1)（預設 7 位元約 0.4%）。
+// 記錄只需一次位元運算與計數遞增；記憶體只與數值範圍有關（每個 2 的冪次 2^subBits 格），與模擬次數無關。
+final class RevenueDistribution {
+    static final int DEFAULT_SUB_BITS = 7;
+    private static final int INITIAL_BUCKETS = 1 << 10;
+
+    private final int shift;              // 52 - subBits：double 位元右移後即為分桶索引
+    private long count;
+    private double mean;
+    private double m2;                    // 與平均數差的平方和
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    private long zeros;                   // 收益為 0 的次數
+    private long[] buckets;               // [index - offset]：正數收益各分桶的次數
+    private int offset;
+
+    RevenueDistribution(int subBits) {
+        if (subBits < 1 || subBits > 16) {
+            throw new IllegalArgumentException("分位數草圖的精度位元必須在1到16之間");
+        }
+        this.shift = 52 - subBits;
+    }
+
+    void record(double value) {
+        if (!(value >= 0)) {
+            throw new IllegalArgumentException("收益不能為負數: " + value);
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        if (value == 0) {
+            zeros++;
+            return;
+        }
+        int index = (int) (Double.doubleToRawLongBits(value) >>> shift);
+        int slot = index - offset;
+        if (buckets == null || slot < 0 || slot >= buckets.length) {
+            slot = grow(index, index);
+        }
+        buckets[slot]++;
+    }
+
+    // 合併另一個摘要（Chan 等人的平行變異數公式，分桶次數逐格相加）
+    void merge(RevenueDistribution other) {
+        if (other.shift != shift) {
+            throw new IllegalArgumentException("分位數草圖的精度不同，無法合併");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            mean = other.mean;
+            m2 = other.m2;
+        } else {
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        zeros += other.zeros;
+        if (other.buckets == null) {
+            return;
+        }
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < other.buckets.length; i++) {
+            if (other.buckets[i] != 0) {
+                first = first < 0 ? i : first;
+                last = i;
+            }
+        }
+        if (first < 0) {
+            return;
+        }
+        grow(other.offset + first, other.offset + last);
+        for (int i = first; i <= last; i++) {
+            buckets[other.offset + i - offset] += other.buckets[i];
+        }
+    }
+
+    // 擴大分桶陣列使其涵蓋 [low, high]，回傳 low 對應的位置
+    private int grow(int low, int high) {
+        if (buckets == null) {
+            int length = INITIAL_BUCKETS;
+            while (length < high - low + 1) {
+                length *= 2;
+            }
+            buckets = new long[length];
+            offset = low - (length - (high - low)) / 2;
+            return low - offset;
+        }
+        int from = Math.min(low, offset);
+        int to = Math.max(high, offset + buckets.length - 1);
+        if (from < offset || to >= offset + buckets.length) {
+            int length = buckets.length;
+            while (length < to - from + 1) {
+                length *= 2;
+            }
+            // 往擴張的方向多留空間，減少反覆搬移
+            int newOffset = from < offset ? to - length + 1 : from;
+            long[] resized = new long[length];
+            System.arraycopy(buckets, 0, resized, offset - newOffset, buckets.length);
+            buckets = resized;
+            offset = newOffset;
+        }
+        return low - offset;
+    }
+
+    long count() {
+        return count;
+    }
+
+    double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    double variance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    double min() {
+        return min;
+    }
+
+    double max() {
+        return max;
+    }
+
+    // 分位數（q 介於 0 到 1）：找出累計次數達到 q × count 的分桶，回傳其中點（限制在最小與最大值之間）
+    double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("分位數必須在0到1之間");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        if (rank <= zeros) {
+            return 0;
+        }
+        long seen = zeros;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                long index = offset + i;
+                double low = Double.longBitsToDouble(index << shift);
+                double high = Double.longBitsToDouble((index + 1) << shift);
+                return Math.min(max, Math.max(min, (low + high) / 2));
+            }
+        }
+        return max;
+    }
+}
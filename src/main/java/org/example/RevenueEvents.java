@@ -0,0 +1,105 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JDK Flight Recorder 自訂事件：設定載入、設定解析、球隊載入、批次計算與報表輸出
+//
+// 未錄製時 shouldCommit() 直接回傳 false，成本只有一次判斷；以
+//   java -XX:StartFlightRecording=filename=revenue.jfr,settings=profile ...
+//   jfr print --events 'org.example.*' revenue.jfr
+// 即可看到各階段的耗時與數量
+//
+// 第一次建立任何 jdk.jfr.Event 子類別會載入並初始化整個 JFR 事件框架，冷啟動約多花數百毫秒；
+// 短命的批次執行（bin/revenue.sh）以 -Drevenue.jfr=false 關閉事件，呼叫端此時不建立事件物件，
+// 事件類別與 JFR 都不會被載入。預設開啟，伺服器與長時間執行不受影響。
+final class RevenueEvents {
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("revenue.jfr", "true"));
+
+    private RevenueEvents() {
+    }
+
+    @Name("org.example.ConfigLoad")
+    @Label("Config Load")
+    @Category({"MLB Revenue", "Load"})
+    @Description("讀取 config.properties")
+    @StackTrace(false)
+    static final class ConfigLoad extends Event {
+        @Label("Source")
+        String source;
+
+        @Label("Entries")
+        int entries;
+    }
+
+    @Name("org.example.ConfigParse")
+    @Label("Config Parse")
+    @Category({"MLB Revenue", "Load"})
+    @Description("把設定值解析為票價、分成比例與賽制")
+    @StackTrace(false)
+    static final class ConfigParse extends Event {
+        @Label("Component")
+        String component;
+    }
+
+    @Name("org.example.TeamLoad")
+    @Label("Team Load")
+    @Category({"MLB Revenue", "Load"})
+    @Description("載入球隊資料")
+    @StackTrace(false)
+    static final class TeamLoad extends Event {
+        @Label("Source")
+        String source;
+
+        @Label("Format")
+        String format;
+
+        @Label("Records")
+        long records;
+
+        @Label("Teams")
+        int teams;
+
+        @Label("Skipped")
+        int skipped;
+
+        @Label("File Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("org.example.ComputeBatch")
+    @Label("Compute Batch")
+    @Category({"MLB Revenue", "Compute"})
+    @Description("批次計算球隊 × 情境收益")
+    @StackTrace(false)
+    static final class ComputeBatch extends Event {
+        @Label("Kernel")
+        String kernel;
+
+        @Label("Teams")
+        int teams;
+
+        @Label("Scenarios")
+        int scenarios;
+    }
+
+    @Name("org.example.ReportFlush")
+    @Label("Report Flush")
+    @Category({"MLB Revenue", "Render"})
+    @Description("報表緩衝區寫到輸出通道")
+    @StackTrace(false)
+    static final class ReportFlush extends Event {
+        @Label("Format")
+        String format;
+
+        @Label("Bytes Written")
+        @DataAmount
+        long bytes;
+    }
+}
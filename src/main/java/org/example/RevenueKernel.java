@@ -0,0 +1,124 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Properties;
+
+// 批次收益核心：一次計算所有球隊 × 所有情境，結果存放於 out[scenario * teams + team]
+// 情境係數：playoff[s] = 季後賽票價 × (主場分成 × 主場場次 + 客場分成 × 客場場次)，worldSeries[s] 同理
+public abstract class RevenueKernel {
+    private static final RevenueKernel SCALAR = new ScalarRevenueKernel();
+    private static volatile RevenueKernel best;
+
+    // 取得最佳可用實作：JVM 載入 jdk.incubator.vector 時使用 SIMD 版本，否則使用純量版本
+    public static RevenueKernel best() {
+        RevenueKernel kernel = best;
+        if (kernel == null) {
+            kernel = SCALAR;
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                    && !Boolean.getBoolean("revenue.kernel.scalar")) {
+                try {
+                    kernel = (RevenueKernel) Class.forName("org.example.VectorRevenueKernel")
+                            .getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    kernel = SCALAR;
+                }
+            }
+            best = kernel;
+        }
+        return kernel;
+    }
+
+    public static RevenueKernel scalar() {
+        return SCALAR;
+    }
+
+    public abstract String name();
+
+    // 計算 revenue = 容量 × (季後賽上座率 × playoff[s] + 世界大賽上座率 × worldSeries[s])
+    public final void compute(TeamTable teams, double[] playoff, double[] worldSeries, double[] out) {
+        if (playoff.length != worldSeries.length) {
+            throw new IllegalArgumentException("情境係數長度不一致");
+        }
+        if (out.length < playoff.length * teams.size) {
+            throw new IllegalArgumentException("輸出陣列長度不足");
+        }
+        long start = System.nanoTime();
+        RevenueEvents.ComputeBatch event = RevenueEvents.ENABLED ? new RevenueEvents.ComputeBatch() : null;
+        if (event != null) {
+            event.begin();
+        }
+        computeUnchecked(teams, playoff, worldSeries, out);
+        RevenueMetrics.COMPUTE_BATCH.recordSince(start);
+        RevenueMetrics.SCENARIO_EVALUATIONS.add((long) teams.size * playoff.length);
+        if (event != null && event.shouldCommit()) {
+            event.kernel = name();
+            event.teams = teams.size;
+            event.scenarios = playoff.length;
+            event.commit();
+        }
+    }
+
+    abstract void computeUnchecked(TeamTable teams, double[] playoff, double[] worldSeries, double[] out);
+
+    // 依票價與分成比例把情境場次轉成每個情境的兩個係數
+    public static void coefficients(RevenueScenarios scenarios, double ticketPricePlayoff, double ticketPriceWorldSeries,
+                                    double revenueShareHome, double revenueShareAway,
+                                    double[] playoff, double[] worldSeries) {
+        for (int s = 0; s < scenarios.size(); s++) {
+            playoff[s] = ticketPricePlayoff * (revenueShareHome * scenarios.playoffHome(s)
+                    + revenueShareAway * scenarios.playoffAway(s));
+            worldSeries[s] = ticketPriceWorldSeries * (revenueShareHome * scenarios.worldSeriesHome(s)
+                    + revenueShareAway * scenarios.worldSeriesAway(s));
+        }
+    }
+
+    // 主方法：以批次核心計算所有球隊的報表情境（scenario.*）收益
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            PostseasonRevenue3 revenue = new PostseasonRevenue3(props);
+            TeamTable teams = PostseasonRevenue3.loadConfiguredTeams(props);
+            RevenueScenarios scenarios = revenue.reportScenarios;
+
+            double[] out = revenue.calculateAll(teams, scenarios);
+            System.out.printf("收益核心: %s%n", best().name());
+            for (int t = 0; t < teams.size(); t++) {
+                System.out.printf("%nTeam 隊伍: %s%n", teams.name(t));
+                for (int s = 0; s < scenarios.size(); s++) {
+                    System.out.printf("  %s : $%.2f 美元%n", scenarios.name(s), out[s * teams.size() + t]);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        }
+    }
+
+    // 純量實作，也是向量版本處理尾端元素的參考
+    static final class ScalarRevenueKernel extends RevenueKernel {
+        @Override
+        public String name() {
+            return "scalar";
+        }
+
+        @Override
+        void computeUnchecked(TeamTable teams, double[] playoff, double[] worldSeries, double[] out) {
+            int n = teams.size;
+            ByteBuffer capacity = teams.capacityAsDouble;
+            ByteBuffer playoffFill = teams.playoffFillRate;
+            ByteBuffer worldSeriesFill = teams.worldSeriesFillRate;
+            for (int s = 0; s < playoff.length; s++) {
+                double p = playoff[s];
+                double w = worldSeries[s];
+                int base = s * n;
+                for (int t = 0; t < n; t++) {
+                    int offset = t << 3;
+                    out[base + t] = capacity.getDouble(offset)
+                            * (playoffFill.getDouble(offset) * p + worldSeriesFill.getDouble(offset) * w);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+// 季後賽實際收益帳本：接收實際比賽結果（輪次、主客隊、入場人數、票價），逐場更新各隊的已實現收益與已打場次
+//
+// 比賽結果為逐行 JSON，例如
+//   {"id":"ALWC-DET-HOU-1","round":"wildcard","home":"HOU","away":"DET","attendance":41000,"price":95.5}
+// 球隊可用代碼或完整名稱，id 用來辨識重送的同一場比賽。每場只更新主客兩隊的彙總，成本固定，與已記錄的場數無關。
+//
+// 帳本以事件溯源保存：已接受的比賽先附加到記錄檔（ledger.log，ledger.fsync 時寫入磁碟）才更新彙總，
+// 重新啟動時依序重播記錄檔即可重建；記錄的是比賽事實而非算好的金額，分成比例調整後重播即依新設定計算。
+// 結尾未寫完的一行（寫入途中中斷）會被截斷。
+//
+// 預估總收益 = 已實現收益 + 報表情境中尚未打的場次依 calculateRevenueUnits（球場容量 × 上座率 × 設定票價）計算的收益，
+// 因此同一組 scenario.* 情境在賽季進行中會逐漸由實際數字取代模型數字。
+public final class RevenueLedger implements AutoCloseable {
+    private static final JsonFactory FACTORY = new JsonFactory();
+    static final int CATEGORIES = 4;            // 季後賽主場、季後賽客場、世界大賽主場、世界大賽客場
+    static final int PLAYOFF_HOME = 0;
+    static final int WORLD_SERIES_HOME = 2;
+
+    // 一場實際比賽；主客隊分到的收益在解析時即以定點單位算好
+    public static final class Game {
+        final String id;
+        final int round;
+        final int home;
+        final int away;
+        final int attendance;
+        final double price;
+        final long homeUnits;
+        final long awayUnits;
+
+        Game(String id, int round, int home, int away, int attendance, double price, long homeUnits, long awayUnits) {
+            this.id = id;
+            this.round = round;
+            this.home = home;
+            this.away = away;
+            this.attendance = attendance;
+            this.price = price;
+            this.homeUnits = homeUnits;
+            this.awayUnits = awayUnits;
+        }
+    }
+
+    private final PostseasonRevenue3 revenue;
+    private final TeamTable teams;
+    private final List<Team3> teamList;
+    private final RevenueScenarios scenarios;
+    private final Map<String, Integer> lookup = new HashMap<>();   // 球隊代碼與完整名稱 -> 球隊索引
+    private final Path path;
+    private final FileChannel log;
+    private final boolean fsync;
+
+    private final long[] realized;      // [team]：已實現收益（定點單位）
+    private final int[] played;         // [team * CATEGORIES + 類別]：已打場次
+    private final Set<String> recorded = new HashSet<>();
+    private long games;
+
+    private RevenueLedger(Properties props, TeamTable teams, Path path, FileChannel log) {
+        this.revenue = new PostseasonRevenue3(props);
+        this.teams = teams;
+        this.teamList = teams.toTeams();
+        this.scenarios = revenue.reportScenarios;
+        this.path = path;
+        this.log = log;
+        this.fsync = Boolean.parseBoolean(props.getProperty("ledger.fsync", "true").trim());
+        this.realized = new long[teams.size()];
+        this.played = new int[teams.size() * CATEGORIES];
+        for (int t = 0; t < teams.size(); t++) {
+            lookup.put(teams.name(t), t);
+            lookup.putIfAbsent(PostseasonSimulator.teamCode(teams.name(t)), t);
+        }
+    }
+
+    // 開啟 ledger.log（預設 target/ledger.ndjson）並重播既有記錄；同一時間只允許一個行程寫入
+    public static RevenueLedger open(Properties props, TeamTable teams) throws IOException {
+        Path path = Path.of(props.getProperty("ledger.log", "target/ledger.ndjson").trim());
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            try {
+                if (channel.tryLock() == null) {
+                    throw new IOException("帳本記錄檔正由其他行程使用: " + path);
+                }
+            } catch (OverlappingFileLockException e) {
+                // 同一個行程已開啟這個記錄檔
+                throw new IOException("帳本記錄檔已開啟: " + path);
+            }
+            RevenueLedger ledger = new RevenueLedger(props, teams, path, channel);
+            ledger.replay();
+            return ledger;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // 依序重播記錄檔；無法解析的記錄列出後略過，結尾不完整的一行截斷
+    private void replay() throws IOException {
+        long size = log.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("帳本記錄檔過大: " + size + " 位元組");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && log.read(buffer, buffer.position()) >= 0) {
+            // 讀到填滿為止
+        }
+        byte[] bytes = buffer.array();
+        int start = 0;
+        int line = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            line++;
+            int from = start;
+            start = i + 1;
+            if (i == from || (i == from + 1 && bytes[from] == '\r')) {
+                continue;
+            }
+            try {
+                Game game = parse(FACTORY.createParser(bytes, from, i - from));
+                if (recorded.add(game.id)) {
+                    apply(game);
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("略過帳本記錄第 " + line + " 行: " + e.getMessage());
+            }
+        }
+        if (start < bytes.length) {
+            System.err.println("帳本記錄檔結尾有未寫完的記錄（" + (bytes.length - start) + " 位元組），已截斷");
+            log.truncate(start);
+        }
+        log.position(start);
+    }
+
+    // 解析一行比賽結果，格式或內容有誤時拋出 IllegalArgumentException
+    Game parse(String line) throws IOException {
+        return parse(FACTORY.createParser(line));
+    }
+
+    // 同上，重播記錄檔時直接解析位元組，不先轉成字串
+    private Game parse(JsonParser input) throws IOException {
+        String id = null;
+        String round = null;
+        String home = null;
+        String away = null;
+        long attendance = -1;
+        double price = Double.NaN;
+        try (JsonParser parser = input) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("不是 JSON 物件");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id":
+                        id = text(parser, value, field);
+                        break;
+                    case "round":
+                        round = text(parser, value, field);
+                        break;
+                    case "home":
+                        home = text(parser, value, field);
+                        break;
+                    case "away":
+                        away = text(parser, value, field);
+                        break;
+                    case "attendance":
+                        if (value != JsonToken.VALUE_NUMBER_INT) {
+                            throw new IllegalArgumentException("attendance 必須為整數");
+                        }
+                        attendance = parser.getLongValue();
+                        break;
+                    case "price":
+                        if (!value.isNumeric()) {
+                            throw new IllegalArgumentException("price 必須為數值");
+                        }
+                        price = parser.getDoubleValue();
+                        break;
+                    default:
+                        break;
+                }
+                parser.skipChildren();
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("一行只能有一筆資料");
+            }
+        } catch (StreamReadException e) {
+            throw new IllegalArgumentException("JSON 語法錯誤: " + e.getOriginalMessage());
+        }
+
+        if (id == null || id.isEmpty()) {
+            throw new IllegalArgumentException("缺少 id");
+        }
+        int r = roundIndex(round);
+        int h = team(home, "home");
+        int a = team(away, "away");
+        if (h == a) {
+            throw new IllegalArgumentException(id + " 的主客隊相同");
+        }
+        if (attendance < 0 || attendance > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(id + " 的 attendance 缺少或超出範圍");
+        }
+        if (!(price >= 0) || Double.isInfinite(price)) {
+            throw new IllegalArgumentException(id + " 的 price 缺少或無效");
+        }
+        try {
+            return new Game(id, r, h, a, (int) attendance, price, revenue.gameUnits((int) attendance, price, true),
+                    revenue.gameUnits((int) attendance, price, false));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(id + " 的收益超出定點範圍");
+        }
+    }
+
+    private static String text(JsonParser parser, JsonToken value, String field) throws IOException {
+        if (value != JsonToken.VALUE_STRING) {
+            throw new IllegalArgumentException(field + " 必須為字串");
+        }
+        return parser.getText().trim();
+    }
+
+    private int roundIndex(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("缺少 round");
+        }
+        for (int r = 0; r < revenue.rounds.length; r++) {
+            if (revenue.rounds[r].key().equals(key)) {
+                return r;
+            }
+        }
+        throw new IllegalArgumentException("輪次不存在: " + key);
+    }
+
+    private int team(String name, String field) {
+        if (name == null) {
+            throw new IllegalArgumentException("缺少 " + field);
+        }
+        Integer t = lookup.get(name);
+        if (t == null) {
+            throw new IllegalArgumentException("找不到球隊: " + name);
+        }
+        return t;
+    }
+
+    // 記錄一場比賽：先附加到記錄檔再更新彙總；同一個 id 已記錄過時回傳 false
+    public synchronized boolean record(Game game) throws IOException {
+        if (recorded.contains(game.id)) {
+            return false;
+        }
+        ByteBuffer line = ByteBuffer.wrap(encode(game));
+        long position = log.position();
+        try {
+            while (line.hasRemaining()) {
+                log.write(line);
+            }
+            if (fsync) {
+                log.force(false);
+            }
+        } catch (IOException e) {
+            log.truncate(position);
+            throw e;
+        }
+        recorded.add(game.id);
+        apply(game);
+        return true;
+    }
+
+    // 記錄檔的一行：球隊以完整名稱寫出
+    private byte[] encode(Game game) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(160);
+        try (JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("id", game.id);
+            generator.writeStringField("round", revenue.rounds[game.round].key());
+            generator.writeStringField("home", teams.name(game.home));
+            generator.writeStringField("away", teams.name(game.away));
+            generator.writeNumberField("attendance", game.attendance);
+            generator.writeNumberField("price", game.price);
+            generator.writeEndObject();
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    // 只更新主客兩隊的已實現收益與已打場次
+    private void apply(Game game) {
+        realized[game.home] = Money.add(realized[game.home], game.homeUnits);
+        realized[game.away] = Money.add(realized[game.away], game.awayUnits);
+        int category = game.round == revenue.rounds.length - 1 ? WORLD_SERIES_HOME : PLAYOFF_HOME;
+        played[game.home * CATEGORIES + category]++;
+        played[game.away * CATEGORIES + category + 1]++;
+        games++;
+    }
+
+    // 解析並記錄一行比賽結果，回傳 "ok"、"duplicate" 或 "error 原因"
+    String ingest(String line) throws IOException {
+        Game game;
+        try {
+            game = parse(line);
+        } catch (IllegalArgumentException e) {
+            return "error " + e.getMessage();
+        }
+        return record(game) ? "ok" : "duplicate";
+    }
+
+    // 匯入比賽結果檔（逐行 JSON），列出有誤的行後略過
+    public void ingest(Path feed) throws IOException {
+        int accepted = 0;
+        int duplicates = 0;
+        int skipped = 0;
+        int number = 0;
+        try (BufferedReader reader = Files.newBufferedReader(feed, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String status = ingest(line);
+                if (status.equals("ok")) {
+                    accepted++;
+                } else if (status.equals("duplicate")) {
+                    duplicates++;
+                } else {
+                    skipped++;
+                    System.err.println("略過 " + feed + " 第 " + number + " 行: " + status.substring("error ".length()));
+                }
+            }
+        }
+        System.err.printf("匯入 %s：新增 %d 場，重複 %d 場，略過 %d 行%n", feed, accepted, duplicates, skipped);
+    }
+
+    // 在本機 TCP 埠接收逐行 JSON 的比賽結果，每行回覆 ok、duplicate 或 error 原因；每個連線一條執行緒
+    public void listen(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.err.println("帳本接收比賽結果: " + server.getLocalSocketAddress());
+            while (true) {
+                Socket socket = server.accept();
+                Thread thread = new Thread(() -> serve(socket), "ledger-feed-" + socket.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String status = ingest(line);
+                if (!status.equals("duplicate")) {
+                    System.err.println("比賽結果 " + status + ": " + line);
+                }
+                writer.write(status);
+                writer.write('\n');
+                writer.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("比賽結果連線中斷: " + e.getMessage());
+        }
+    }
+
+    public synchronized long games() {
+        return games;
+    }
+
+    public synchronized long realizedUnits(int team) {
+        return realized[team];
+    }
+
+    // 已打場次，category 為 PLAYOFF_HOME、PLAYOFF_HOME + 1（客場）、WORLD_SERIES_HOME 或 WORLD_SERIES_HOME + 1
+    public synchronized int played(int team, int category) {
+        return played[team * CATEGORIES + category];
+    }
+
+    // 情境是否仍與實際相符：季後賽與世界大賽的已打場數都沒有超過情境的場數
+    // （情境以低種子身分計算主客場，實際主客場分配可能不同，因此只比較總場數）
+    public synchronized boolean reachable(int team, int scenario) {
+        int base = team * CATEGORIES;
+        return played[base] + played[base + 1] <= scenarios.playoffHome(scenario) + scenarios.playoffAway(scenario)
+                && played[base + 2] + played[base + 3]
+                <= scenarios.worldSeriesHome(scenario) + scenarios.worldSeriesAway(scenario);
+    }
+
+    // 預估總收益：已實現收益 + 情境中尚未打的場次依模型計算的收益
+    public synchronized long projectedUnits(int team, int scenario) {
+        Team3 row = teamList.get(team);
+        int base = team * CATEGORIES;
+        long playoff = remainingUnits(row, scenarios.playoffHome(scenario), scenarios.playoffAway(scenario),
+                played[base], played[base + 1], false);
+        long worldSeries = remainingUnits(row, scenarios.worldSeriesHome(scenario), scenarios.worldSeriesAway(scenario),
+                played[base + 2], played[base + 3], true);
+        return Money.add(realized[team], Money.add(playoff, worldSeries));
+    }
+
+    // 同一階段尚未打的場次：情境總場數扣除已打場數，其中主場最多補到情境主場數與已打主場數的差
+    private long remainingUnits(Team3 row, int scenarioHome, int scenarioAway, int playedHome, int playedAway,
+                                boolean worldSeries) {
+        int remaining = Math.max(0, scenarioHome + scenarioAway - playedHome - playedAway);
+        int home = Math.min(remaining, Math.max(0, scenarioHome - playedHome));
+        return revenue.calculateRevenueUnits(row, home, remaining - home, worldSeries);
+    }
+
+    // 每支球隊列出已打場次、已實現收益，以及各報表情境的預估總收益
+    public synchronized void report(RevenueReportWriter report) {
+        Money money = revenue.money;
+        for (int t = 0; t < teams.size(); t++) {
+            int base = t * CATEGORIES;
+            report.team(teams.name(t));
+            report.line(String.format("Games played 已打場次: 季後賽 主場 %d / 客場 %d，世界大賽 主場 %d / 客場 %d",
+                    played[base], played[base + 1], played[base + 2], played[base + 3]));
+            report.amount("Realized 已實現收益", money.dollars(realized[t]));
+            report.section("Projected 預估總收益");
+            for (int s = 0; s < scenarios.size(); s++) {
+                String label = reachable(t, s) ? scenarios.name(s) : scenarios.name(s) + "（實際場次已超過）";
+                report.amount(label, money.dollars(projectedUnits(t, s)));
+            }
+            report.line("");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    // 主方法：由記錄檔重建帳本；參數為比賽結果檔時依序匯入後列出報表，--listen [埠] 時改為接收本機 TCP 連線
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            TeamTable teams = PostseasonRevenue3.loadConfiguredTeams(props);
+            long start = System.nanoTime();
+            try (RevenueLedger ledger = open(props, teams)) {
+                System.err.printf("由 %s 重建 %d 場比賽，耗時 %.1f 毫秒%n", ledger.path, ledger.games(),
+                        (System.nanoTime() - start) / 1e6);
+                if (args.length > 0 && args[0].equals("--listen")) {
+                    int port = PostseasonRevenue3.getIntProperty(props, "ledger.port", 9091);
+                    if (args.length > 1) {
+                        try {
+                            port = Integer.parseInt(args[1]);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("無效的連接埠: " + args[1]);
+                        }
+                    }
+                    ledger.listen(port);
+                    return;
+                }
+                for (String arg : args) {
+                    ledger.ingest(Path.of(arg));
+                }
+                try (RevenueReportWriter report = RevenueReportWriter.open(props)) {
+                    ledger.report(report);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        } catch (ArithmeticException e) {
+            System.err.println("金額計算溢位: " + e.getMessage());
+        }
+    }
+}
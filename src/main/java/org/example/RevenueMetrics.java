@@ -0,0 +1,251 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// 常駐的效能指標：各階段的延遲直方圖與計數器，可隨時以 Prometheus 文字格式輸出
+//
+// 直方圖採 HDR 式的對數-線性分桶（每個 2 的冪次再細分 128 格，相對誤差低於 1%），
+// 記錄時只有一次 AtomicLongArray 遞增與 LongAdder 累加，不持有鎖。
+// 由 RevenueServer 的 /metrics 提供，或設定 metrics.output 在程式結束時寫到檔案。
+public final class RevenueMetrics {
+    private static final Map<String, Metric> REGISTRY = new LinkedHashMap<>();
+
+    public static final Histogram LOAD = histogram("revenue_load_seconds", "球隊資料載入耗時");
+    public static final Histogram TEAM_COMPUTE = histogram("revenue_team_compute_seconds", "單一球隊各情境收益計算耗時");
+    public static final Histogram COMPUTE_BATCH = histogram("revenue_compute_batch_seconds", "收益核心批次計算耗時");
+    public static final Histogram EVALUATE = histogram("revenue_evaluate_seconds", "自訂情境查詢耗時");
+    public static final Histogram OUTPUT = histogram("revenue_output_seconds", "報表緩衝區寫出耗時");
+    public static final Histogram REQUEST = histogram("revenue_request_seconds", "HTTP 請求處理耗時");
+
+    public static final Counter TEAMS_LOADED = counter("revenue_teams_loaded_total", "載入的球隊數");
+    public static final Counter SCENARIO_EVALUATIONS = counter("revenue_scenario_evaluations_total", "計算的球隊 × 情境收益數");
+    public static final Counter OUTPUT_BYTES = counter("revenue_output_bytes_total", "報表寫出的位元組數");
+    public static final Counter REQUEST_ERRORS = counter("revenue_request_errors_total", "回應狀態非 200 的請求數");
+
+    private RevenueMetrics() {
+    }
+
+    // 一個可輸出的指標
+    private interface Metric {
+        void write(StringBuilder out);
+    }
+
+    // 對數-線性延遲直方圖（單位：奈秒）
+    public static final class Histogram implements Metric {
+        private static final int SUB_BITS = 7;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int MAX_EXPONENT = 40;  // 約 18 分鐘，更長的值計入最後一格
+        private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+        private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+        private final String name;
+        private final String help;
+        private final AtomicLongArray counts = new AtomicLongArray((MAX_EXPONENT + 2 - SUB_BITS) * SUB);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        Histogram(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        static int index(long nanos) {
+            long v = Math.min(Math.max(nanos, 0), MAX_VALUE);
+            if (v < SUB) {
+                return (int) v;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(v);
+            return (exponent - SUB_BITS) * SUB + (int) (v >>> (exponent - SUB_BITS));
+        }
+
+        // 分桶內的最大值
+        static long highestEquivalent(int index) {
+            if (index < 2 * SUB) {
+                return index;
+            }
+            int shift = index / SUB - 1;
+            long low = (long) (index % SUB + SUB) << shift;
+            return low + (1L << shift) - 1;
+        }
+
+        public void record(long nanos) {
+            counts.incrementAndGet(index(nanos));
+            count.increment();
+            sum.add(nanos);
+            long current = max.get();
+            while (nanos > current && !max.compareAndSet(current, nanos)) {
+                current = max.get();
+            }
+        }
+
+        // 記錄從 start（System.nanoTime()）到現在的耗時
+        public void recordSince(long start) {
+            record(System.nanoTime() - start);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        // 百分位數（奈秒），回傳所在分桶的最大值，不超過觀察到的最大值
+        public long quantile(double q) {
+            long[] snapshot = new long[counts.length()];
+            long total = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            return quantile(snapshot, total, q);
+        }
+
+        private long quantile(long[] snapshot, long total, double q) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(highestEquivalent(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        public void write(StringBuilder out) {
+            long[] snapshot = new long[counts.length()];
+            long total = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            header(out, name, help, "summary");
+            for (double q : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(q).append("\"} ")
+                        .append(seconds(quantile(snapshot, total, q))).append('\n');
+            }
+            out.append(name).append("_sum ").append(seconds(sum.sum())).append('\n');
+            out.append(name).append("_count ").append(total).append('\n');
+            header(out, name + "_max", help + "（最大值）", "gauge");
+            out.append(name).append("_max ").append(seconds(max.get())).append('\n');
+        }
+    }
+
+    // 單調遞增的計數器
+    public static final class Counter implements Metric {
+        private final String name;
+        private final String help;
+        private final LongAdder value = new LongAdder();
+
+        Counter(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        public void add(long n) {
+            value.add(n);
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public long value() {
+            return value.sum();
+        }
+
+        @Override
+        public void write(StringBuilder out) {
+            header(out, name, help, "counter");
+            out.append(name).append(' ').append(value.sum()).append('\n');
+        }
+    }
+
+    private static synchronized Histogram histogram(String name, String help) {
+        Histogram histogram = new Histogram(name, help);
+        REGISTRY.put(name, histogram);
+        return histogram;
+    }
+
+    private static synchronized Counter counter(String name, String help) {
+        Counter counter = new Counter(name, help);
+        REGISTRY.put(name, counter);
+        return counter;
+    }
+
+    // 登記由其他元件維護的數值（例如快取統計），輸出時才讀取；type 為 counter 或 gauge，同名者取代舊的登記
+    public static synchronized void register(String name, String help, String type, LongSupplier value) {
+        REGISTRY.put(name, out -> {
+            header(out, name, help, type);
+            out.append(name).append(' ').append(value.getAsLong()).append('\n');
+        });
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    // 以 Prometheus 文字格式（0.0.4）輸出目前所有指標
+    public static String prometheus() {
+        List<Metric> metrics;
+        synchronized (RevenueMetrics.class) {
+            metrics = new ArrayList<>(REGISTRY.values());
+        }
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric metric : metrics) {
+            metric.write(out);
+        }
+        return out.toString();
+    }
+
+    // 寫到檔案：先寫暫存檔再換名，讀取端不會看到寫到一半的內容
+    public static void dump(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        Files.write(temp, prometheus().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // 設定了 metrics.output 時，在程式結束時把指標寫到該檔案
+    public static void dumpOnExit(Properties props) {
+        String output = props.getProperty("metrics.output", "").trim();
+        if (output.isEmpty()) {
+            return;
+        }
+        Path path = Path.of(output);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                dump(path);
+            } catch (IOException e) {
+                System.err.println("寫入效能指標時發生錯誤: " + e.getMessage());
+            }
+        }, "revenue-metrics-dump"));
+    }
+}
@@ -0,0 +1,304 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+// 收益報表輸出：把文字與金額直接寫入一塊大型位元組緩衝區，滿了才寫到通道；支援文字、CSV 與 JSON Lines
+public final class RevenueReportWriter implements Closeable {
+    public enum Format {
+        TEXT, CSV, JSON_LINES;
+
+        // 解析 report.format 設定值：text、csv、jsonl
+        public static Format parse(String value) {
+            switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "text":
+                    return TEXT;
+                case "csv":
+                    return CSV;
+                case "jsonl":
+                case "json-lines":
+                    return JSON_LINES;
+                default:
+                    throw new IllegalArgumentException("無效的報表格式: " + value);
+            }
+        }
+    }
+
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int ENCODED_ENTRIES = 1024; // 編碼快取上限：情境標籤會重複，球隊名稱與自由文字多半只出現一次
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;   // 標準輸出不由本物件關閉
+    private final Format format;
+    private final MoneyFormat money;
+    private final byte[] buffer = new byte[BUFFER_BYTES];
+    private final ByteBuffer view = ByteBuffer.wrap(buffer);
+    private final Map<String, byte[]> encoded = new LinkedHashMap<>(64, 0.75f, true) { // 文字的 UTF-8 編碼快取（LRU）
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > ENCODED_ENTRIES;
+        }
+    };
+    private int position;
+    private long bytesWritten;
+    private byte[] team = new byte[0];     // 目前球隊名稱
+    private byte[] section = new byte[0];  // 目前區段名稱
+
+    public RevenueReportWriter(WritableByteChannel channel, boolean closeChannel, Format format, MoneyFormat money) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.format = format;
+        this.money = money;
+        if (format == Format.CSV) {
+            raw("team,section,scenario,revenue\n");
+        }
+    }
+
+    // 依 report.format、report.output 與 currency.format 建立；report.output 未設定時寫到標準輸出
+    public static RevenueReportWriter open(Properties props) throws IOException {
+        Format format = Format.parse(props.getProperty("report.format", "text"));
+        MoneyFormat money = new MoneyFormat(props.getProperty("currency.format", "$#,##0.00"));
+        String output = props.getProperty("report.output", "").trim();
+        if (output.isEmpty()) {
+            System.out.flush();
+            return new RevenueReportWriter(new FileOutputStream(FileDescriptor.out).getChannel(), false, format, money);
+        }
+        FileChannel file = FileChannel.open(Path.of(output), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new RevenueReportWriter(file, true, format, money);
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    // 開始一支球隊的報表
+    public void team(String name) {
+        team = bytes(name);
+        section = new byte[0];
+        if (format == Format.TEXT) {
+            raw("\nTeam 隊伍: ");
+            put(team);
+            newline();
+        }
+    }
+
+    // 開始球隊報表中的一個區段，例如「主場累積收益」
+    public void section(String title) {
+        section = bytes(title);
+        if (format == Format.TEXT) {
+            put(section);
+            raw(":\n");
+        }
+    }
+
+    // 輸出一筆情境收益
+    public void amount(String label, double value) {
+        if (format == Format.TEXT) {
+            put(bytes(label));
+            raw(" : ");
+            money(value, true);
+            raw(" 美元\n");
+        } else {
+            record(label, null, value);
+        }
+    }
+
+    // 輸出同一情境的兩種結果，例如「外卡賽 (贏): $x, (輸): $y」
+    public void pair(String label, String firstLabel, double first, String secondLabel, double second) {
+        if (format == Format.TEXT) {
+            raw("  ");
+            put(bytes(label));
+            raw(" (");
+            put(bytes(firstLabel));
+            raw("): ");
+            money(first, true);
+            raw(", (");
+            put(bytes(secondLabel));
+            raw("): ");
+            money(second, true);
+            newline();
+        } else {
+            record(label, firstLabel, first);
+            record(label, secondLabel, second);
+        }
+    }
+
+    // 輸出一行自由文字（僅文字格式）
+    public void line(String text) {
+        if (format == Format.TEXT) {
+            put(text.getBytes(StandardCharsets.UTF_8));   // 自由文字幾乎不會重複，不放入編碼快取
+            newline();
+        }
+    }
+
+    // CSV / JSON Lines 的一筆資料；情境名稱為 label 或 "label (variant)"
+    private void record(String label, String variant, double value) {
+        if (format == Format.CSV) {
+            quoted(team, (byte) '"');
+            put((byte) ',');
+            quoted(section, (byte) '"');
+            put((byte) ',');
+            put((byte) '"');
+            scenario(label, variant, (byte) '"');
+            put((byte) '"');
+            put((byte) ',');
+            money(value, false);
+            newline();
+        } else {
+            raw("{\"team\":\"");
+            escaped(team);
+            raw("\",\"section\":\"");
+            escaped(section);
+            raw("\",\"scenario\":\"");
+            scenario(label, variant, (byte) 0);
+            raw("\",\"revenue\":");
+            money(value, false);
+            raw("}\n");
+        }
+    }
+
+    private void scenario(String label, String variant, byte quote) {
+        writeField(bytes(label), quote);
+        if (variant != null) {
+            raw(" (");
+            writeField(bytes(variant), quote);
+            put((byte) ')');
+        }
+    }
+
+    private void writeField(byte[] value, byte quote) {
+        if (quote == 0) {
+            escaped(value);
+        } else {
+            for (byte b : value) {
+                if (b == quote) {
+                    put(quote);
+                }
+                put(b);
+            }
+        }
+    }
+
+    private void quoted(byte[] value, byte quote) {
+        put(quote);
+        writeField(value, quote);
+        put(quote);
+    }
+
+    // JSON 字串跳脫：UTF-8 多位元組字元的每個位元組都 >= 0x80，可逐位元組處理
+    private void escaped(byte[] value) {
+        for (byte b : value) {
+            if (b == '"' || b == '\\') {
+                put((byte) '\\');
+                put(b);
+            } else if (b >= 0 && b < 0x20) {
+                raw(String.format("\\u%04x", b));
+            } else {
+                put(b);
+            }
+        }
+    }
+
+    private void money(double value, boolean decorated) {
+        ensure(money.maxLength());
+        position += decorated ? money.format(value, buffer, position) : money.formatPlain(value, buffer, position);
+    }
+
+    private byte[] bytes(String text) {
+        byte[] value = encoded.get(text);
+        if (value == null) {
+            value = text.getBytes(StandardCharsets.UTF_8);
+            encoded.put(text, value);
+        }
+        return value;
+    }
+
+    private void raw(String text) {
+        put(bytes(text));
+    }
+
+    private void newline() {
+        put((byte) '\n');
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buffer[position++] = b;
+    }
+
+    private void put(byte[] bytes) {
+        if (bytes.length > buffer.length) {
+            flush();
+            drain(ByteBuffer.wrap(bytes));
+            return;
+        }
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int length) {
+        if (position + length > buffer.length) {
+            flush();
+        }
+    }
+
+    // 把緩衝區內容寫到通道
+    public void flush() {
+        if (position == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        RevenueEvents.ReportFlush event = RevenueEvents.ENABLED ? new RevenueEvents.ReportFlush() : null;
+        if (event != null) {
+            event.begin();
+        }
+        view.clear().limit(position);
+        drain(view);
+        RevenueMetrics.OUTPUT.recordSince(start);
+        RevenueMetrics.OUTPUT_BYTES.add(position);
+        if (event != null && event.shouldCommit()) {
+            event.format = format.name();
+            event.bytes = position;
+            event.commit();
+        }
+        position = 0;
+    }
+
+    private void drain(ByteBuffer data) {
+        try {
+            while (data.hasRemaining()) {
+                bytesWritten += channel.write(data);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("寫入報表時發生錯誤", e);
+        }
+    }
+
+    // 已寫到通道的位元組數
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (closeChannel) {
+            channel.close();
+        }
+    }
+}
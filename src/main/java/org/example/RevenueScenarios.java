@@ -0,0 +1,157 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+// 收益情境集合：每個情境記錄季後賽與世界大賽的主客場場次，以欄位陣列儲存
+public final class RevenueScenarios {
+    private int size;
+    private String[] names = new String[8];
+    private int[] playoffHome = new int[8];
+    private int[] playoffAway = new int[8];
+    private int[] worldSeriesHome = new int[8];
+    private int[] worldSeriesAway = new int[8];
+
+    // 新增一個情境，回傳其編號
+    public int add(String name, int playoffHome, int playoffAway, int worldSeriesHome, int worldSeriesAway) {
+        if (playoffHome < 0 || playoffAway < 0 || worldSeriesHome < 0 || worldSeriesAway < 0) {
+            throw new IllegalArgumentException("比賽場次不能為負數");
+        }
+        if (size == names.length) {
+            int newLength = size * 2;
+            names = Arrays.copyOf(names, newLength);
+            this.playoffHome = Arrays.copyOf(this.playoffHome, newLength);
+            this.playoffAway = Arrays.copyOf(this.playoffAway, newLength);
+            this.worldSeriesHome = Arrays.copyOf(this.worldSeriesHome, newLength);
+            this.worldSeriesAway = Arrays.copyOf(this.worldSeriesAway, newLength);
+        }
+        names[size] = name;
+        this.playoffHome[size] = playoffHome;
+        this.playoffAway[size] = playoffAway;
+        this.worldSeriesHome[size] = worldSeriesHome;
+        this.worldSeriesAway[size] = worldSeriesAway;
+        return size++;
+    }
+
+    // PostseasonRevenue3 的四種情境：以低種子身分在各輪被橫掃，或每輪打滿到世界大賽第7場
+    public static RevenueScenarios standard(SeriesFormat[] rounds) {
+        RevenueScenarios scenarios = new RevenueScenarios();
+        String[] labels = {"Eliminated in Wild Card Series", "Eliminated in Division Series",
+                "Eliminated in Championship Series"};
+        int home = 0;
+        int away = 0;
+        for (int r = 0; r < rounds.length - 1; r++) {
+            int swept = rounds[r].winsNeeded();
+            scenarios.add(labels[r], home + rounds[r].homeGames(swept, false),
+                    away + rounds[r].awayGames(swept, false), 0, 0);
+            home += rounds[r].homeGames(rounds[r].maxGames(), false);
+            away += rounds[r].awayGames(rounds[r].maxGames(), false);
+        }
+        SeriesFormat worldSeries = rounds[rounds.length - 1];
+        scenarios.add("Reaches World Series Game 7", home, away,
+                worldSeries.homeGames(worldSeries.maxGames(), false), worldSeries.awayGames(worldSeries.maxGames(), false));
+        return scenarios;
+    }
+
+    // PostseasonRevenue3 報表的預設情境：{名稱, 各輪場次}，未設定 scenario.* 時使用
+    static final String[][] REPORT_DEFAULTS = {
+            {"Eliminated in Division Series 在分區系列賽淘汰", "wildcard:full, division:swept"},
+            {"Eliminated in Wild Card Series 在外卡賽淘汰", "wildcard:swept"},
+            {"Eliminated in Championship Series 在聯盟冠軍賽淘汰", "wildcard:full, division:full, championship:swept"},
+            {"Reaches World Series Game 7 打到世界大賽第7場", "wildcard:full, division:full, championship:full, worldseries:full"},
+    };
+
+    // 讀取 scenario.<n>.name / scenario.<n>.legs（n 從 1 起連續編號）；沒有任何設定時使用 REPORT_DEFAULTS
+    public static RevenueScenarios fromProperties(Properties props, SeriesFormat[] rounds) {
+        RevenueScenarios scenarios = new RevenueScenarios();
+        for (int n = 1; props.getProperty("scenario." + n + ".legs") != null; n++) {
+            String legs = props.getProperty("scenario." + n + ".legs");
+            scenarios.addLegs(props.getProperty("scenario." + n + ".name", "scenario " + n).trim(), legs, rounds);
+        }
+        if (scenarios.size() == 0) {
+            for (String[] definition : REPORT_DEFAULTS) {
+                scenarios.addLegs(definition[0], definition[1], rounds);
+            }
+        }
+        return scenarios;
+    }
+
+    // 把一串「輪:場次」在載入時加總成季後賽與世界大賽的主客場場次，計算時每個情境只剩兩個係數。
+    // 場次可為 full（以低種子打滿）、swept（以低種子被橫掃）、打了幾場（以低種子）或 主場/客場，
+    // 例如 "wildcard:full, division:3/2, worldseries:5"；最後一輪（世界大賽）使用世界大賽票價與上座率
+    public int addLegs(String name, String legs, SeriesFormat[] rounds) {
+        int[] games = new int[4]; // 季後賽主場、季後賽客場、世界大賽主場、世界大賽客場
+        for (String leg : legs.split(",")) {
+            String trimmed = leg.trim();
+            int colon = trimmed.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("情境 " + name + " 的場次格式應為 輪:場次: " + trimmed);
+            }
+            int round = roundIndex(rounds, trimmed.substring(0, colon).trim(), name);
+            SeriesFormat format = rounds[round];
+            String spec = trimmed.substring(colon + 1).trim();
+            int home;
+            int away;
+            try {
+                int slash = spec.indexOf('/');
+                if (slash >= 0) {
+                    home = Integer.parseInt(spec.substring(0, slash).trim());
+                    away = Integer.parseInt(spec.substring(slash + 1).trim());
+                    if (!format.allowsHomeAway(home, away)) {
+                        throw new IllegalArgumentException("情境 " + name + " 的 " + format.key() + " 主客場場次 "
+                                + home + "/" + away + " 不符合 " + format.pattern() + " 賽制（合計須在"
+                                + format.winsNeeded() + "到" + format.maxGames() + "之間，且符合主場分配）");
+                    }
+                } else {
+                    int played = spec.equals("full") ? format.maxGames()
+                            : spec.equals("swept") ? format.winsNeeded() : Integer.parseInt(spec);
+                    if (played < format.winsNeeded() || played > format.maxGames()) {
+                        throw new IllegalArgumentException("情境 " + name + " 的 " + format.key() + " 場次必須在"
+                                + format.winsNeeded() + "到" + format.maxGames() + "之間");
+                    }
+                    home = format.homeGames(played, false);
+                    away = format.awayGames(played, false);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("情境 " + name + " 的場次無效: " + spec);
+            }
+            int offset = round == rounds.length - 1 ? 2 : 0;
+            games[offset] += home;
+            games[offset + 1] += away;
+        }
+        return add(name, games[0], games[1], games[2], games[3]);
+    }
+
+    private static int roundIndex(SeriesFormat[] rounds, String key, String scenario) {
+        for (int r = 0; r < rounds.length; r++) {
+            if (rounds[r].key().equals(key)) {
+                return r;
+            }
+        }
+        throw new IllegalArgumentException("情境 " + scenario + " 的輪次不存在: " + key);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int scenario) {
+        return names[scenario];
+    }
+
+    public int playoffHome(int scenario) {
+        return playoffHome[scenario];
+    }
+
+    public int playoffAway(int scenario) {
+        return playoffAway[scenario];
+    }
+
+    public int worldSeriesHome(int scenario) {
+        return worldSeriesHome[scenario];
+    }
+
+    public int worldSeriesAway(int scenario) {
+        return worldSeriesAway[scenario];
+    }
+}
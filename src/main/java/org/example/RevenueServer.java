@@ -0,0 +1,496 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 內嵌 HTTP 收益查詢服務：共用 RevenueWatcher 的記憶體快照，回應 JSON
+//
+//   GET /teams                         所有球隊資料
+//   GET /teams/{名稱或代碼}             單一球隊的各情境收益
+//   GET /league                        全聯盟球隊 × 情境收益表（每個快照版本只編碼一次）
+//   GET /evaluate?playoffHome=&playoffAway=&worldSeriesHome=&worldSeriesAway=[&team=]
+//                                      自訂場次情境的收益，未指定 team 時回傳所有球隊
+//   GET /bracket                       12 隊對戰樹的各輪晉級機率與期望收益
+//   GET /health                        快照版本與球隊數
+//   GET /cache                         /evaluate 與 /bracket 結果快取的統計
+//   GET /metrics                       各階段延遲與計數（Prometheus 文字格式）
+public final class RevenueServer {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final RevenueWatcher watcher;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RevenueCache<Key, Object> cache; // 值為單一球隊的自訂情境收益（Double）或整個聯盟的對戰樹
+    private volatile Encoded league = new Encoded(-1, new byte[0]); // 已編碼的 /league 回應
+
+    static final long BRACKET = -1; // 對戰樹項目的情境描述
+
+    // 結果快取的鍵：球隊列的指紋（對戰樹為整個聯盟的指紋）、情境描述與收益相關設定的雜湊
+    //
+    // 鍵不含快照版本：只改報表格式、連接埠等設定，或重新存檔而內容不變時，新版本仍命中舊項目
+    static final class Key {
+        final long team;
+        final long scenario;
+        final long config;
+
+        Key(long team, long scenario, long config) {
+            this.team = team;
+            this.scenario = scenario;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return team == other.team && scenario == other.scenario && config == other.config;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = (team * 31 + scenario) * 31 + config;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    // 某個快照版本已編碼的回應
+    private static final class Encoded {
+        final long version;
+        final byte[] body;
+
+        Encoded(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+        }
+    }
+
+    // 單一請求的錯誤，對應 HTTP 狀態碼
+    private static final class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    public RevenueServer(RevenueWatcher watcher, InetAddress host, int port, int backlog, long cacheEntries)
+            throws IOException {
+        this.watcher = watcher;
+        this.cache = new RevenueCache<>(cacheEntries);
+        this.server = HttpServer.create(new InetSocketAddress(host, port), backlog);
+        this.executor = requestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/teams", exchange -> handle(exchange, this::teams));
+        server.createContext("/league", exchange -> handle(exchange, this::league));
+        server.createContext("/evaluate", exchange -> handle(exchange, this::evaluate));
+        server.createContext("/bracket", exchange -> handle(exchange, this::bracket));
+        server.createContext("/health", exchange -> handle(exchange, this::health));
+        server.createContext("/cache", exchange -> handle(exchange, this::cacheStats));
+        server.createContext("/metrics", exchange -> handle(exchange, PROMETHEUS, this::metrics));
+        RevenueMetrics.register("revenue_cache_hits_total", "結果快取命中數", "counter", () -> cache.stats().hits);
+        RevenueMetrics.register("revenue_cache_misses_total", "結果快取未命中數", "counter", () -> cache.stats().misses);
+        RevenueMetrics.register("revenue_cache_evictions_total", "結果快取取代數", "counter", () -> cache.stats().evictions);
+        RevenueMetrics.register("revenue_cache_entries", "結果快取項目數", "gauge", cache::size);
+        RevenueMetrics.register("revenue_snapshot_version", "目前快照版本", "gauge", () -> watcher.current().version);
+    }
+
+    // 每個請求一條虛擬執行緒（JDK 21 以上）；較舊的 JDK 改用固定大小的執行緒池
+    static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 4));
+        }
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    // server.host：監聽的位址，空白或未設定時只接受本機連線；要對外提供服務時明確設為 0.0.0.0 或網卡位址
+    static InetAddress host(Properties config) {
+        String host = config.getProperty("server.host", "").trim();
+        if (host.isEmpty()) {
+            return InetAddress.getLoopbackAddress();
+        }
+        try {
+            return InetAddress.getByName(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("無效的 server.host: " + host);
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private interface Handler {
+        byte[] respond(HttpExchange exchange, RevenueWatcher.Snapshot snapshot) throws IOException;
+    }
+
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final String PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        handle(exchange, JSON_TYPE, handler);
+    }
+
+    private void handle(HttpExchange exchange, String contentType, Handler handler) throws IOException {
+        long start = System.nanoTime();
+        int status = 200;
+        byte[] body;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                throw new RequestException(405, "只支援 GET");
+            }
+            body = handler.respond(exchange, watcher.current());
+        } catch (RequestException e) {
+            status = e.status;
+            body = error(e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body = error("計算收益時發生錯誤: " + e.getMessage());
+        }
+        exchange.getResponseHeaders().set("Content-Type", status == 200 ? contentType : JSON_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+        RevenueMetrics.REQUEST.recordSince(start);
+        if (status != 200) {
+            RevenueMetrics.REQUEST_ERRORS.increment();
+        }
+    }
+
+    private byte[] teams(HttpExchange exchange, RevenueWatcher.Snapshot snapshot) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/teams") || path.equals("/teams/")) {
+            return json(generator -> {
+                generator.writeStartArray();
+                for (int t = 0; t < snapshot.teams.size(); t++) {
+                    writeTeam(generator, snapshot.teams, t);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            });
+        }
+        if (!path.startsWith("/teams/")) {
+            throw new RequestException(404, "找不到路徑: " + path);
+        }
+        int row = findTeam(snapshot, path.substring("/teams/".length()));
+        return json(generator -> {
+            writeTeam(generator, snapshot.teams, row);
+            writeScenarios(generator, snapshot, row);
+            generator.writeEndObject();
+        });
+    }
+
+    private byte[] league(HttpExchange exchange, RevenueWatcher.Snapshot snapshot) throws IOException {
+        Encoded encoded = league;
+        if (encoded.version != snapshot.version) {
+            byte[] body = json(generator -> {
+                generator.writeStartObject();
+                generator.writeNumberField("version", snapshot.version);
+                generator.writeArrayFieldStart("teams");
+                for (int t = 0; t < snapshot.teams.size(); t++) {
+                    generator.writeStartObject();
+                    generator.writeStringField("name", snapshot.teams.name(t));
+                    writeScenarios(generator, snapshot, t);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            });
+            encoded = new Encoded(snapshot.version, body);
+            league = encoded;
+        }
+        return encoded.body;
+    }
+
+    private byte[] evaluate(HttpExchange exchange, RevenueWatcher.Snapshot snapshot) throws IOException {
+        long start = System.nanoTime();
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        long scenario = packScenario(intParameter(query, "playoffHome"), intParameter(query, "playoffAway"),
+                intParameter(query, "worldSeriesHome"), intParameter(query, "worldSeriesAway"));
+        TeamTable teams = snapshot.teams;
+        String team = query.get("team");
+        int from = team == null ? 0 : findTeam(snapshot, team);
+        int to = team == null ? teams.size() : from + 1;
+        double[][] coefficients = new double[1][]; // 只有未命中時才需要情境係數，同一請求只計算一次
+        double[] revenues = new double[to - from];
+        for (int t = from; t < to; t++) {
+            revenues[t - from] = revenue(snapshot, t, scenario, coefficients);
+        }
+        byte[] body = json(generator -> {
+            generator.writeStartArray();
+            for (int t = from; t < to; t++) {
+                generator.writeStartObject();
+                generator.writeStringField("name", teams.name(t));
+                generator.writeNumberField("revenue", revenues[t - from]);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        });
+        RevenueMetrics.EVALUATE.recordSince(start);
+        RevenueMetrics.SCENARIO_EVALUATIONS.add(to - from);
+        return body;
+    }
+
+    // 單一球隊在自訂情境下的收益，依（球隊列、情境、收益設定）快取
+    double revenue(RevenueWatcher.Snapshot snapshot, int t, long scenario, double[][] coefficients) {
+        Key key = new Key(snapshot.rowHash(t), scenario, snapshot.revenueHash());
+        return (Double) cache.get(key, k -> {
+            if (coefficients[0] == null) {
+                coefficients[0] = coefficients(snapshot, scenario);
+            }
+            TeamTable teams = snapshot.teams;
+            return teams.capacityAsDouble(t)
+                    * (teams.playoffFillRate(t) * coefficients[0][0] + teams.worldSeriesFillRate(t) * coefficients[0][1]);
+        });
+    }
+
+    // 整個聯盟的對戰樹，依（聯盟指紋、收益設定）快取；未命中時由快照建立
+    RevenueWatcher.Bracket bracket(RevenueWatcher.Snapshot snapshot) {
+        Key key = new Key(snapshot.leagueHash(), BRACKET, snapshot.revenueHash());
+        return (RevenueWatcher.Bracket) cache.get(key, k -> snapshot.bracket());
+    }
+
+    // 重新載入後只清除受影響的項目：收益相關設定改變，或球隊列（對戰樹為整個聯盟）已不在新快照中；回傳清除的數量
+    long reloaded(RevenueWatcher.Snapshot next) {
+        Set<Long> teams = new HashSet<>();
+        for (int t = 0; t < next.teams.size(); t++) {
+            teams.add(next.rowHash(t));
+        }
+        teams.add(next.leagueHash());
+        return cache.invalidateIf(key -> key.config != next.revenueHash() || !teams.contains(key.team));
+    }
+
+    RevenueCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    // 情境描述：四個場次各佔 16 位元
+    private static long packScenario(int playoffHome, int playoffAway, int worldSeriesHome, int worldSeriesAway) {
+        int[] games = {playoffHome, playoffAway, worldSeriesHome, worldSeriesAway};
+        long packed = 0;
+        for (int g : games) {
+            if (g < 0 || g > 0xFFFF) {
+                throw new RequestException(400, "比賽場次必須在0到65535之間");
+            }
+            packed = (packed << 16) | g;
+        }
+        return packed;
+    }
+
+    // 依快照的票價與分成比例計算情境係數 {季後賽, 世界大賽}
+    private static double[] coefficients(RevenueWatcher.Snapshot snapshot, long scenario) {
+        RevenueScenarios scenarios = new RevenueScenarios();
+        scenarios.add("custom", (int) (scenario >>> 48) & 0xFFFF, (int) (scenario >>> 32) & 0xFFFF,
+                (int) (scenario >>> 16) & 0xFFFF, (int) scenario & 0xFFFF);
+        double[] playoff = new double[1];
+        double[] worldSeries = new double[1];
+        snapshot.revenue.coefficients(scenarios, playoff, worldSeries);
+        return new double[]{playoff[0], worldSeries[0]};
+    }
+
+    private byte[] cacheStats(HttpExchange exchange, RevenueWatcher.Snapshot snapshot) throws IOException {
+        RevenueCache.Stats stats = cache.stats();
+        return json(generator -> {
+            generator.writeStartObject();
+            generator.writeNumberField("hits", stats.hits);
+            generator.writeNumberField("misses", stats.misses);
+            generator.writeNumberField("hitRate", stats.hitRate());
+            generator.writeNumberField("evictions", stats.evictions);
+            generator.writeNumberField("rejections", stats.rejections);
+            generator.writeNumberField("invalidations", stats.invalidations);
+            generator.writeNumberField("size", stats.size);
+            generator.writeNumberField("maxEntries", cache.maxEntries());
+            generator.writeEndObject();
+        });
+    }
+
+    private byte[] bracket(HttpExchange exchange, RevenueWatcher.Snapshot snapshot) throws IOException {
+        RevenueWatcher.Bracket cached = bracket(snapshot);
+        BracketModel bracket = cached.model();
+        BracketModel.Result result = cached.result();
+        TeamTable teams = bracket.teams();
+        return json(generator -> {
+            generator.writeStartObject();
+            generator.writeNumberField("version", snapshot.version);
+            generator.writeArrayFieldStart("teams");
+            for (int t = 0; t < teams.size(); t++) {
+                if (bracket.league(t) < 0) {
+                    continue;
+                }
+                generator.writeStartObject();
+                generator.writeStringField("name", teams.name(t));
+                generator.writeStringField("league", BracketModel.LEAGUES[bracket.league(t)]);
+                generator.writeNumberField("seed", bracket.seed(t));
+                generator.writeNumberField("expected", result.expected(t));
+                generator.writeNumberField("champion", result.champion(t));
+                generator.writeArrayFieldStart("rounds");
+                for (int r = 0; r < PostseasonSimulator.ROUNDS; r++) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("reach", result.reach(t, r));
+                    generator.writeNumberField("expected", result.expected(t, r));
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
+
+    private byte[] metrics(HttpExchange exchange, RevenueWatcher.Snapshot snapshot) {
+        return RevenueMetrics.prometheus().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] health(HttpExchange exchange, RevenueWatcher.Snapshot snapshot) throws IOException {
+        return json(generator -> {
+            generator.writeStartObject();
+            generator.writeNumberField("version", snapshot.version);
+            generator.writeNumberField("teams", snapshot.teams.size());
+            generator.writeEndObject();
+        });
+    }
+
+    private static int findTeam(RevenueWatcher.Snapshot snapshot, String name) {
+        int row = snapshot.find(name);
+        if (row < 0) {
+            throw new RequestException(404, "找不到球隊: " + name);
+        }
+        return row;
+    }
+
+    // 寫出球隊欄位（不結束物件）
+    private static void writeTeam(JsonGenerator generator, TeamTable teams, int t) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", teams.name(t));
+        generator.writeStringField("stadium", teams.stadium(t));
+        generator.writeNumberField("capacity", teams.capacity(t));
+        generator.writeNumberField("playoffFillRate", teams.playoffFillRate(t));
+        generator.writeNumberField("worldSeriesFillRate", teams.worldSeriesFillRate(t));
+    }
+
+    private static void writeScenarios(JsonGenerator generator, RevenueWatcher.Snapshot snapshot, int t) throws IOException {
+        generator.writeObjectFieldStart("revenue");
+        for (int s = 0; s < snapshot.scenarios.size(); s++) {
+            generator.writeNumberField(snapshot.scenarios.name(s), snapshot.revenue(t, s));
+        }
+        generator.writeEndObject();
+    }
+
+    private static int intParameter(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "無效的數值參數: " + name);
+        }
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> query = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(key, value);
+        }
+        return query;
+    }
+
+    private interface JsonBody {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private static byte[] json(JsonBody body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = JSON.createGenerator(output, JsonEncoding.UTF8)) {
+            body.write(generator);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] error(String message) {
+        try {
+            return json(generator -> {
+                generator.writeStartObject();
+                generator.writeStringField("error", message);
+                generator.writeEndObject();
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 主方法：參數為設定檔路徑（預設 src/main/resources/config.properties）；server.watch=true 時同時監看檔案變更
+    public static void main(String[] args) {
+        try {
+            RevenueWatcher watcher = new RevenueWatcher(Path.of(args.length > 0 ? args[0] : "src/main/resources/config.properties"));
+            RevenueWatcher.Snapshot snapshot = watcher.reload();
+            RevenueMetrics.dumpOnExit(snapshot.config);
+            int port = PostseasonRevenue3.getIntProperty(snapshot.config, "server.port", 8080);
+            int backlog = PostseasonRevenue3.getIntProperty(snapshot.config, "server.backlog", 1024);
+            long cacheEntries = PostseasonRevenue3.getIntProperty(snapshot.config, "cache.max.entries", 4096);
+            InetAddress host = host(snapshot.config);
+            RevenueServer server = new RevenueServer(watcher, host, port, backlog, cacheEntries);
+            server.start();
+            String address = host instanceof Inet6Address ? "[" + host.getHostAddress() + "]" : host.getHostAddress();
+            System.out.println("收益查詢服務已啟動: http://" + address + ":" + server.port() + "/league");
+
+            if (Boolean.parseBoolean(snapshot.config("server.watch", "true"))) {
+                watcher.watch(next -> {
+                    long removed = server.reloaded(next);
+                    System.out.println("已載入第 " + next.version + " 版，重新計算 " + next.changed.length
+                            + " 支球隊；清除 " + removed + " 個快取項目，快取 " + server.cache.stats());
+                });
+            }
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.example;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+// 收益結果存放檔：球隊 × 情境 × 主客場的收益矩陣以固定配置寫入記憶體對映檔，其他 JVM 或工具可直接對映讀取
+//
+// 檔案配置（little-endian）：
+//   0  magic "MLBR"        4  版本           8  球隊數 n       12 情境數 m
+//   16 字串池位元組數      20 保留           24 資料區起點     32 已完成的球隊列數（release / acquire 讀寫）
+//   40 保留到 64
+//   64 字串起點 int[n + m + 1]（先球隊名稱、後情境名稱）、字串池 UTF-8 bytes，補齊到 8 的倍數
+//   資料區 double[n][m][2]：每支球隊一列，每個情境依序為主場、客場收益
+//
+// 寫入端建立檔案時即配置整個矩陣，逐列寫入後才推進已完成列數；讀取端只讀已完成的列，
+// 因此寫入途中也能安全地讀取，數值直接從對映區取出，不經過文字格式化與解析，也不佔用 Java heap。
+public final class RevenueStore implements AutoCloseable {
+    static final int MAGIC = 0x4D4C4252; // "MLBR"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int COMMITTED = 32;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final boolean writable;
+    private final int teams;
+    private final int scenarios;
+    private final int dataOffset;
+    private final int[] offsets;        // 字串起點（位元組，相對於字串池）
+    private final int poolOffset;
+
+    private RevenueStore(FileChannel channel, MappedByteBuffer mapped, boolean writable) throws IOException {
+        this.channel = channel;
+        this.mapped = mapped;
+        this.writable = writable;
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+            throw new IOException("不是收益結果存放檔");
+        }
+        if (mapped.getInt(4) != VERSION) {
+            throw new IOException("不支援的存放檔版本 " + mapped.getInt(4));
+        }
+        this.teams = mapped.getInt(8);
+        this.scenarios = mapped.getInt(12);
+        int poolBytes = mapped.getInt(16);
+        long data = mapped.getLong(24);
+        long pool = HEADER_BYTES + ((long) teams + scenarios + 1) * 4;
+        if (teams < 0 || scenarios < 0 || poolBytes < 0 || pool + poolBytes > mapped.capacity()
+                || data != align((int) pool + poolBytes)
+                || data + (long) teams * scenarios * 16 != mapped.capacity()) {
+            throw new IOException("存放檔長度不符");
+        }
+        int strings = teams + scenarios;
+        this.poolOffset = (int) pool;
+        this.dataOffset = (int) data;
+        long committed = mapped.getLong(COMMITTED);
+        if (committed < 0 || committed > teams) {
+            throw new IOException("存放檔已完成列數無效: " + committed);
+        }
+        this.offsets = new int[strings + 1];
+        mapped.slice(HEADER_BYTES, (strings + 1) * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(offsets);
+        for (int i = 0; i < strings; i++) {
+            if (offsets[i] < 0 || offsets[i] > offsets[i + 1] || offsets[i + 1] > poolBytes) {
+                throw new IOException("存放檔字串池損毀");
+            }
+        }
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    // 建立新的存放檔並配置整個矩陣；已存在的檔案先刪除（已對映舊檔的讀取端仍看得到舊內容）
+    public static RevenueStore create(Path path, TeamTable teams, RevenueScenarios scenarios) throws IOException {
+        int strings = teams.size() + scenarios.size();
+        byte[][] encoded = new byte[strings][];
+        int poolBytes = 0;
+        for (int i = 0; i < strings; i++) {
+            String name = i < teams.size() ? teams.name(i) : scenarios.name(i - teams.size());
+            encoded[i] = name.getBytes(StandardCharsets.UTF_8);
+            poolBytes += encoded[i].length;
+        }
+        int dataOffset = align(HEADER_BYTES + (strings + 1) * 4 + poolBytes);
+        long length = dataOffset + (long) teams.size() * scenarios.size() * 16;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("收益矩陣超過單一對映區上限: " + length + " 位元組");
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.deleteIfExists(path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            mapped.putInt(4, VERSION).putInt(8, teams.size()).putInt(12, scenarios.size())
+                    .putInt(16, poolBytes).putLong(24, dataOffset).putLong(COMMITTED, 0);
+            int position = HEADER_BYTES;
+            int offset = 0;
+            for (int i = 0; i < strings; i++) {
+                mapped.putInt(position, offset);
+                position += 4;
+                offset += encoded[i].length;
+            }
+            mapped.putInt(position, offset);
+            position += 4;
+            for (byte[] bytes : encoded) {
+                mapped.put(position, bytes);
+                position += bytes.length;
+            }
+            // magic 最後寫入，讀取端看到 magic 時標頭與索引都已就緒
+            mapped.putInt(0, MAGIC);
+            return new RevenueStore(channel, mapped, true);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // 以唯讀方式對映既有的存放檔
+    public static RevenueStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new RevenueStore(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), false);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // 計算並寫入所有球隊在各情境下的主客場收益，每寫完一列即可被讀取端看到
+    public static void write(Path path, PostseasonRevenue3 revenue, TeamTable teams, RevenueScenarios scenarios)
+            throws IOException {
+        int m = scenarios.size();
+        double[] playoffHome = new double[m];
+        double[] worldSeriesHome = new double[m];
+        double[] playoffAway = new double[m];
+        double[] worldSeriesAway = new double[m];
+        revenue.homeAwayCoefficients(scenarios, playoffHome, worldSeriesHome, playoffAway, worldSeriesAway);
+        double[] home = new double[m];
+        double[] away = new double[m];
+        try (RevenueStore store = create(path, teams, scenarios)) {
+            for (int t = 0; t < teams.size(); t++) {
+                double capacity = teams.capacity(t);
+                double playoffFill = teams.playoffFillRate(t);
+                double worldSeriesFill = teams.worldSeriesFillRate(t);
+                for (int s = 0; s < m; s++) {
+                    home[s] = capacity * (playoffFill * playoffHome[s] + worldSeriesFill * worldSeriesHome[s]);
+                    away[s] = capacity * (playoffFill * playoffAway[s] + worldSeriesFill * worldSeriesAway[s]);
+                }
+                store.append(home, away);
+            }
+        }
+    }
+
+    // 寫入下一支球隊的各情境主客場收益，寫完後才推進已完成列數
+    public void append(double[] home, double[] away) {
+        if (!writable) {
+            throw new IllegalStateException("存放檔以唯讀方式開啟");
+        }
+        if (home.length != scenarios || away.length != scenarios) {
+            throw new IllegalArgumentException("情境數不符: " + home.length + " / " + away.length);
+        }
+        long row = mapped.getLong(COMMITTED);
+        if (row >= teams) {
+            throw new IllegalStateException("所有球隊都已寫入");
+        }
+        int position = dataOffset + (int) row * scenarios * 16;
+        for (int s = 0; s < scenarios; s++) {
+            mapped.putDouble(position, home[s]);
+            mapped.putDouble(position + 8, away[s]);
+            position += 16;
+        }
+        LONGS.setRelease(mapped, COMMITTED, row + 1);
+        RevenueMetrics.SCENARIO_EVALUATIONS.add(scenarios);
+    }
+
+    // 已寫入完成、可安全讀取的球隊列數
+    public int committed() {
+        return (int) (long) LONGS.getAcquire(mapped, COMMITTED);
+    }
+
+    public int teams() {
+        return teams;
+    }
+
+    public int scenarios() {
+        return scenarios;
+    }
+
+    public String teamName(int team) {
+        return string(team);
+    }
+
+    public String scenarioName(int scenario) {
+        return string(teams + scenario);
+    }
+
+    private String string(int i) {
+        byte[] bytes = new byte[offsets[i + 1] - offsets[i]];
+        mapped.get(poolOffset + offsets[i], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public double home(int team, int scenario) {
+        return mapped.getDouble(cell(team, scenario));
+    }
+
+    public double away(int team, int scenario) {
+        return mapped.getDouble(cell(team, scenario) + 8);
+    }
+
+    public double total(int team, int scenario) {
+        int cell = cell(team, scenario);
+        return mapped.getDouble(cell) + mapped.getDouble(cell + 8);
+    }
+
+    private int cell(int team, int scenario) {
+        if (team < 0 || team >= committed() || scenario < 0 || scenario >= scenarios) {
+            throw new IndexOutOfBoundsException("球隊 " + team + " / 情境 " + scenario + " 尚未寫入或不存在");
+        }
+        return dataOffset + (team * scenarios + scenario) * 16;
+    }
+
+    // 整個資料區的唯讀視圖（[team][scenario][主場, 客場] 的 double），供其他工具直接以緩衝區存取
+    public ByteBuffer data() {
+        return mapped.slice(dataOffset, mapped.capacity() - dataOffset).order(ByteOrder.LITTLE_ENDIAN).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writable) {
+            mapped.force();
+        }
+        channel.close();
+    }
+
+    // 主方法：有參數時讀取並列出該存放檔，否則依設定計算報表情境並寫到 store.output（預設 target/revenue.store）
+    public static void main(String[] args) {
+        try {
+            if (args.length > 0) {
+                try (RevenueStore store = open(Path.of(args[0]))) {
+                    int committed = store.committed();
+                    System.out.printf("%s：%d / %d 支球隊、%d 個情境%n", args[0], committed, store.teams(), store.scenarios());
+                    for (int t = 0; t < committed; t++) {
+                        System.out.printf("%nTeam 隊伍: %s%n", store.teamName(t));
+                        for (int s = 0; s < store.scenarios(); s++) {
+                            System.out.printf("  %s : 主場 $%.2f + 客場 $%.2f = $%.2f 美元%n", store.scenarioName(s),
+                                    store.home(t, s), store.away(t, s), store.total(t, s));
+                        }
+                    }
+                }
+                return;
+            }
+            Properties props = PostseasonRevenue3.loadProperties();
+            PostseasonRevenue3 revenue = new PostseasonRevenue3(props);
+            TeamTable teams = PostseasonRevenue3.loadConfiguredTeams(props);
+            String output = props.getProperty("store.output", "").trim();
+            Path path = Path.of(output.isEmpty() ? "target/revenue.store" : output);
+            write(path, revenue, teams, revenue.reportScenarios);
+            System.out.printf("已將 %d 支球隊 × %d 個情境寫入 %s（%d 位元組）%n", teams.size(),
+                    revenue.reportScenarios.size(), path, Files.size(path));
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        }
+    }
+}
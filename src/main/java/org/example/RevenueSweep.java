@@ -0,0 +1,384 @@
+package org.example;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// 票價 / 上座率 / 分成比例敏感度掃描：對所有球隊 × 情境 × 參數的笛卡兒格點計算收益
+//
+// 格點順序（最外到最內）：球隊、情境、revenue.share.home、ticket.price.playoff、ticket.price.worldseries、
+// playoffFillRate、worldSeriesFillRate。格點切成固定大小的區塊平行計算與編碼，再依序寫出，
+// 同時在記憶體中的區塊數有上限，因此不需保存整個結果格點。
+//
+// 二進位輸出（sweep.format=binary，little-endian）：
+//   magic "MLBS"、版本、7 個維度的格數（int）、5 個參數軸的起點與間距（double，上座率未掃描時為 NaN），
+//   之後依格點順序每格一個 double
+public final class RevenueSweep {
+    static final int MAGIC = 0x53424C4D; // "MLBS"
+    static final int VERSION = 1;
+    private static final int TILE_CELLS = 1 << 14;
+    private static final int AXES = 5;
+    private static final String[] AXIS_KEYS = {"share.home", "price.playoff", "price.worldseries",
+            "fill.playoff", "fill.worldseries"};
+    private static final int SHARE = 0, PRICE_PLAYOFF = 1, PRICE_WORLD_SERIES = 2, FILL_PLAYOFF = 3, FILL_WORLD_SERIES = 4;
+
+    // 參數軸：min:max:step 展開後的數值與輸出文字
+    static final class Axis {
+        final String key;
+        final double min;
+        final double step;
+        final double[] values;
+        final byte[][] text;
+
+        Axis(String key, String spec) {
+            String[] parts = spec.trim().split(":");
+            if (parts.length != 1 && parts.length != 3) {
+                throw new IllegalArgumentException("掃描範圍格式應為 min:max:step: " + key + "=" + spec);
+            }
+            BigDecimal min;
+            BigDecimal max;
+            BigDecimal step;
+            try {
+                min = new BigDecimal(parts[0].trim());
+                max = parts.length == 3 ? new BigDecimal(parts[1].trim()) : min;
+                step = parts.length == 3 ? new BigDecimal(parts[2].trim()) : BigDecimal.ONE;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("無效的數值設定: " + key);
+            }
+            if (step.signum() <= 0 || max.compareTo(min) < 0) {
+                throw new IllegalArgumentException("掃描範圍無效（需 min <= max 且 step > 0）: " + key);
+            }
+            long count = max.subtract(min).divideToIntegralValue(step).longValueExact() + 1;
+            if (count > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("掃描格數過多: " + key);
+            }
+            int scale = Math.max(0, Math.max(min.stripTrailingZeros().scale(), step.stripTrailingZeros().scale()));
+            this.key = key;
+            this.min = min.doubleValue();
+            this.step = step.doubleValue();
+            this.values = new double[(int) count];
+            this.text = new byte[(int) count][];
+            for (int i = 0; i < count; i++) {
+                BigDecimal value = min.add(step.multiply(BigDecimal.valueOf(i)));
+                values[i] = value.doubleValue();
+                text[i] = value.setScale(scale).toPlainString().getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+
+        int count() {
+            return values.length;
+        }
+
+        int maxTextLength() {
+            int length = 0;
+            for (byte[] bytes : text) {
+                length = Math.max(length, bytes.length);
+            }
+            return length;
+        }
+
+        void checkRange(double low, double high) {
+            for (double value : values) {
+                if (!(value >= low && value <= high)) {
+                    throw new IllegalArgumentException(key + " 必須在" + low + "到" + high + "之間: " + value);
+                }
+            }
+        }
+    }
+
+    private final TeamTable teams;
+    private final RevenueScenarios scenarios;
+    private final Axis[] axes;           // 上座率軸為 null 時使用各球隊自己的上座率
+    private final int[] dims;            // 7 個維度的格數
+    private final long cells;
+    private final boolean binary;        // true：二進位 double；false：CSV
+    private final String currencyFormat;
+    private final byte[][] teamText;     // CSV 欄位：球隊名稱（已加引號）
+    private final byte[][] scenarioText; // CSV 欄位：情境名稱（已加引號）
+    private final byte[][] teamPlayoffFill;
+    private final byte[][] teamWorldSeriesFill;
+
+    RevenueSweep(TeamTable teams, RevenueScenarios scenarios, Axis[] axes, boolean binary, String currencyFormat) {
+        this.teams = teams;
+        this.scenarios = scenarios;
+        this.axes = axes.clone();
+        this.binary = binary;
+        this.currencyFormat = currencyFormat;
+        axes[SHARE].checkRange(0, 1);
+        for (int a = FILL_PLAYOFF; a <= FILL_WORLD_SERIES; a++) {
+            if (axes[a] != null) {
+                axes[a].checkRange(0, 1);
+            }
+        }
+
+        this.dims = new int[]{teams.size(), scenarios.size(), axes[SHARE].count(), axes[PRICE_PLAYOFF].count(),
+                axes[PRICE_WORLD_SERIES].count(), count(axes[FILL_PLAYOFF]), count(axes[FILL_WORLD_SERIES])};
+        long product = 1;
+        for (int d : dims) {
+            product = Math.multiplyExact(product, (long) d);
+        }
+        this.cells = product;
+
+        this.teamText = new byte[teams.size()][];
+        this.teamPlayoffFill = new byte[teams.size()][];
+        this.teamWorldSeriesFill = new byte[teams.size()][];
+        for (int t = 0; t < teams.size(); t++) {
+            teamText[t] = csvQuoted(teams.name(t));
+            teamPlayoffFill[t] = Double.toString(teams.playoffFillRate(t)).getBytes(StandardCharsets.US_ASCII);
+            teamWorldSeriesFill[t] = Double.toString(teams.worldSeriesFillRate(t)).getBytes(StandardCharsets.US_ASCII);
+        }
+        this.scenarioText = new byte[scenarios.size()][];
+        for (int s = 0; s < scenarios.size(); s++) {
+            scenarioText[s] = csvQuoted(scenarios.name(s));
+        }
+    }
+
+    private static int count(Axis axis) {
+        return axis == null ? 1 : axis.count();
+    }
+
+    // 讀取 sweep.* 設定；未設定的價格與分成比例使用原本的單一設定值，未設定的上座率使用各球隊資料
+    public static RevenueSweep fromProperties(TeamTable teams, Properties props) {
+        Axis[] axes = new Axis[AXES];
+        axes[SHARE] = new Axis("sweep.share.home",
+                props.getProperty("sweep.share.home", props.getProperty("revenue.share.home", "0.85")));
+        axes[PRICE_PLAYOFF] = new Axis("sweep.price.playoff",
+                props.getProperty("sweep.price.playoff", props.getProperty("ticket.price.playoff", "450")));
+        axes[PRICE_WORLD_SERIES] = new Axis("sweep.price.worldseries",
+                props.getProperty("sweep.price.worldseries", props.getProperty("ticket.price.worldseries", "800")));
+        for (int a = FILL_PLAYOFF; a <= FILL_WORLD_SERIES; a++) {
+            String spec = props.getProperty("sweep." + AXIS_KEYS[a], "").trim();
+            axes[a] = spec.isEmpty() ? null : new Axis("sweep." + AXIS_KEYS[a], spec);
+        }
+        String format = props.getProperty("sweep.format", "csv").trim().toLowerCase(Locale.ROOT);
+        if (!format.equals("csv") && !format.equals("binary")) {
+            throw new IllegalArgumentException("掃描輸出只支援 csv 或 binary: " + format);
+        }
+        return new RevenueSweep(teams, RevenueScenarios.fromProperties(props, SeriesFormat.fromProperties(props)), axes,
+                format.equals("binary"), props.getProperty("currency.format", "$#,##0.00"));
+    }
+
+    public long cells() {
+        return cells;
+    }
+
+    // 平行計算所有區塊並依序寫入通道，回傳寫出的位元組數
+    public long run(WritableByteChannel channel, int parallelism) throws IOException, InterruptedException {
+        long written = write(channel, header());
+        long tiles = (cells + TILE_CELLS - 1) / TILE_CELLS;
+        int window = Math.max(2, parallelism * 2);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        ArrayDeque<Future<ByteBuffer>> pending = new ArrayDeque<>(window);
+        try {
+            long next = 0;
+            while (next < tiles || !pending.isEmpty()) {
+                while (next < tiles && pending.size() < window) {
+                    long start = next * TILE_CELLS;
+                    int length = (int) Math.min(TILE_CELLS, cells - start);
+                    pending.add(pool.submit(() -> tile(start, length)));
+                    next++;
+                }
+                written += write(channel, pending.poll().get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("掃描計算失敗", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return written;
+    }
+
+    private static long write(WritableByteChannel channel, ByteBuffer data) throws IOException {
+        long written = 0;
+        while (data.hasRemaining()) {
+            written += channel.write(data);
+        }
+        return written;
+    }
+
+    private ByteBuffer header() {
+        if (!binary) {
+            return ByteBuffer.wrap(("team,scenario,share.home,price.playoff,price.worldseries,"
+                    + "fill.playoff,fill.worldseries,revenue\n").getBytes(StandardCharsets.US_ASCII));
+        }
+        ByteBuffer header = ByteBuffer.allocate(8 + dims.length * 4 + AXES * 16).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION);
+        for (int d : dims) {
+            header.putInt(d);
+        }
+        for (Axis axis : axes) {
+            header.putDouble(axis == null ? Double.NaN : axis.min).putDouble(axis == null ? Double.NaN : axis.step);
+        }
+        return header.flip();
+    }
+
+    // 計算並編碼一個區塊（格點線性編號 start 起的 length 格）
+    ByteBuffer tile(long start, int length) {
+        int[] digit = new int[dims.length];
+        long rest = start;
+        for (int d = dims.length - 1; d >= 0; d--) {
+            digit[d] = (int) (rest % dims[d]);
+            rest /= dims[d];
+        }
+
+        MoneyFormat money = new MoneyFormat(currencyFormat);
+        ByteBuffer out;
+        byte[] row = null;
+        int prefixLength = 0;
+        if (binary) {
+            out = ByteBuffer.allocate(length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        } else {
+            int rowBytes = maxRowBytes(money);
+            out = ByteBuffer.allocate(length * rowBytes);
+            row = new byte[rowBytes];
+        }
+
+        Axis fillPlayoff = axes[FILL_PLAYOFF];
+        Axis fillWorldSeries = axes[FILL_WORLD_SERIES];
+        int done = 0;
+        while (done < length) {
+            int t = digit[0];
+            int s = digit[1];
+            double shareHome = axes[SHARE].values[digit[2]];
+            double pricePlayoff = axes[PRICE_PLAYOFF].values[digit[3]];
+            double priceWorldSeries = axes[PRICE_WORLD_SERIES].values[digit[4]];
+            double playoffFill = fillPlayoff == null ? teams.playoffFillRate(t) : fillPlayoff.values[digit[5]];
+            double capacity = teams.capacityAsDouble(t);
+
+            // 收益 = 容量 × 上座率 × 票價 × (主場分成 × 主場場次 + 客場分成 × 客場場次)，季後賽與世界大賽分開
+            double playoffGames = shareHome * scenarios.playoffHome(s) + (1 - shareHome) * scenarios.playoffAway(s);
+            double worldSeriesGames = shareHome * scenarios.worldSeriesHome(s) + (1 - shareHome) * scenarios.worldSeriesAway(s);
+            double playoffPart = capacity * playoffFill * pricePlayoff * playoffGames;
+            double worldSeriesRate = capacity * priceWorldSeries * worldSeriesGames;
+
+            // 最內層（世界大賽上座率）連續一段只需一次乘加
+            int first = digit[6];
+            int run = Math.min(dims[6] - first, length - done);
+            if (!binary) {
+                prefixLength = rowPrefix(row, t, s, digit);
+            }
+            for (int i = 0; i < run; i++) {
+                double worldSeriesFill = fillWorldSeries == null ? teams.worldSeriesFillRate(t) : fillWorldSeries.values[first + i];
+                double revenue = playoffPart + worldSeriesRate * worldSeriesFill;
+                if (binary) {
+                    out.putDouble(revenue);
+                } else {
+                    int position = prefixLength;
+                    byte[] fill = fillWorldSeries == null ? teamWorldSeriesFill[t] : fillWorldSeries.text[first + i];
+                    System.arraycopy(fill, 0, row, position, fill.length);
+                    position += fill.length;
+                    row[position++] = ',';
+                    position += money.formatPlain(revenue, row, position);
+                    row[position++] = '\n';
+                    out.put(row, 0, position);
+                }
+            }
+            done += run;
+
+            // 進位到下一段
+            digit[6] += run;
+            for (int d = dims.length - 1; d > 0 && digit[d] == dims[d]; d--) {
+                digit[d] = 0;
+                digit[d - 1]++;
+            }
+        }
+        return out.flip();
+    }
+
+    // CSV 一列中在最內層迴圈內不變的欄位
+    private int rowPrefix(byte[] row, int t, int s, int[] digit) {
+        int position = 0;
+        position = put(row, position, teamText[t]);
+        position = put(row, position, scenarioText[s]);
+        position = put(row, position, axes[SHARE].text[digit[2]]);
+        position = put(row, position, axes[PRICE_PLAYOFF].text[digit[3]]);
+        position = put(row, position, axes[PRICE_WORLD_SERIES].text[digit[4]]);
+        return put(row, position, axes[FILL_PLAYOFF] == null ? teamPlayoffFill[t] : axes[FILL_PLAYOFF].text[digit[5]]);
+    }
+
+    private static int put(byte[] row, int position, byte[] field) {
+        System.arraycopy(field, 0, row, position, field.length);
+        row[position + field.length] = ',';
+        return position + field.length + 1;
+    }
+
+    // CSV 單列最大長度
+    private int maxRowBytes(MoneyFormat money) {
+        int length = maxLength(teamText) + maxLength(scenarioText) + money.maxLength() + 8;
+        for (int a = 0; a < AXES; a++) {
+            if (axes[a] != null) {
+                length += axes[a].maxTextLength();
+            }
+        }
+        return length + maxLength(teamPlayoffFill) + maxLength(teamWorldSeriesFill);
+    }
+
+    private static int maxLength(byte[][] values) {
+        int length = 0;
+        for (byte[] value : values) {
+            length = Math.max(length, value.length);
+        }
+        return length;
+    }
+
+    private static byte[] csvQuoted(String value) {
+        return ('"' + value.replace("\"", "\"\"") + '"').getBytes(StandardCharsets.UTF_8);
+    }
+
+    // 主方法：依 sweep.* 設定掃描並寫到 sweep.output（空白表示標準輸出）
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            RevenueSweep sweep = fromProperties(PostseasonRevenue3.loadConfiguredTeams(props), props);
+            int parallelism = PostseasonRevenue3.getIntProperty(props, "sweep.parallelism", 0);
+            if (parallelism <= 0) {
+                parallelism = Runtime.getRuntime().availableProcessors();
+            }
+            String output = props.getProperty("sweep.output", "").trim();
+            long start = System.nanoTime();
+            long bytes;
+            if (output.isEmpty()) {
+                bytes = sweep.run(new FileOutputStream(FileDescriptor.out).getChannel(), parallelism);
+            } else {
+                Path path = Path.of(output);
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    bytes = sweep.run(channel, parallelism);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf(Locale.ROOT, "掃描 %,d 格，輸出 %,d 位元組，耗時 %.2f 秒（%,.0f 格/秒）%n",
+                    sweep.cells(), bytes, seconds, sweep.cells() / seconds);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("掃描被中斷");
+        }
+    }
+}
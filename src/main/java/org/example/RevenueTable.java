@@ -0,0 +1,169 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Properties;
+
+// 預先計算的收益查詢表：每組（球隊集合、設定）建立一次，之後「在第 R 輪被淘汰、主場 H 場、客場 A 場」的查詢只需查表
+//
+// 每支球隊、每一輪各存一段 0..maxGames 的累積收益（主場分成與客場分成分開存）：
+//   home[t * stride + roundOffset[r] + h] = 前面各輪以低種子打滿的主場收益 + h × 本輪每場主場收益
+// 查詢總收益為主場與客場兩次查表相加，不再做任何乘法。
+// 每場收益捨入到 Money 的最小單位後以 long 累積，各輪累積值是精確的整數，不隨輪數增加而產生誤差
+public final class RevenueTable {
+    private final TeamTable teams;
+    private final SeriesFormat[] rounds;
+    private final Money money;
+    private final int[] roundOffset;    // 每一輪在球隊區段中的起點
+    private final int stride;           // 每支球隊區段長度（各輪 maxGames + 1 的總和）
+    private final long[] homeGame;      // 每場主場收益（單位數）[t * rounds + r]
+    private final long[] awayGame;      // 每場客場收益（單位數）[t * rounds + r]
+    private final long[] home;          // 主場分成累積收益（單位數）
+    private final long[] away;          // 客場分成累積收益（單位數）
+
+    private RevenueTable(TeamTable teams, SeriesFormat[] rounds, double ticketPricePlayoff, double ticketPriceWorldSeries,
+                         double revenueShareHome, double revenueShareAway, Money money) {
+        this.teams = teams;
+        this.rounds = rounds.clone();
+        this.money = money;
+        this.roundOffset = new int[rounds.length];
+        int offset = 0;
+        for (int r = 0; r < rounds.length; r++) {
+            roundOffset[r] = offset;
+            offset += rounds[r].maxGames() + 1;
+        }
+        this.stride = offset;
+
+        int n = teams.size;
+        int last = rounds.length - 1;
+        this.homeGame = new long[n * rounds.length];
+        this.awayGame = new long[n * rounds.length];
+        this.home = new long[n * stride];
+        this.away = new long[n * stride];
+        for (int t = 0; t < n; t++) {
+            int capacity = teams.capacity(t);
+            long playoffHome = money.gate(capacity, teams.playoffFillRate(t), ticketPricePlayoff, revenueShareHome);
+            long playoffAway = money.gate(capacity, teams.playoffFillRate(t), ticketPricePlayoff, revenueShareAway);
+            long worldSeriesHome = money.gate(capacity, teams.worldSeriesFillRate(t), ticketPriceWorldSeries, revenueShareHome);
+            long worldSeriesAway = money.gate(capacity, teams.worldSeriesFillRate(t), ticketPriceWorldSeries, revenueShareAway);
+            long homePrefix = 0;
+            long awayPrefix = 0;
+            for (int r = 0; r < rounds.length; r++) {
+                long perHome = r == last ? worldSeriesHome : playoffHome;
+                long perAway = r == last ? worldSeriesAway : playoffAway;
+                homeGame[t * rounds.length + r] = perHome;
+                awayGame[t * rounds.length + r] = perAway;
+                int base = t * stride + roundOffset[r];
+                for (int g = 0; g <= rounds[r].maxGames(); g++) {
+                    home[base + g] = Money.addTimes(homePrefix, perHome, g);
+                    away[base + g] = Money.addTimes(awayPrefix, perAway, g);
+                }
+                // 晉級下一輪：本輪以低種子打滿
+                homePrefix = home[base + rounds[r].homeGames(rounds[r].maxGames(), false)];
+                awayPrefix = away[base + rounds[r].awayGames(rounds[r].maxGames(), false)];
+            }
+        }
+    }
+
+    // 以指定票價、分成比例、賽制與金額單位建立
+    public static RevenueTable build(TeamTable teams, SeriesFormat[] rounds, double ticketPricePlayoff,
+                                     double ticketPriceWorldSeries, double revenueShareHome, double revenueShareAway,
+                                     Money money) {
+        if (Math.abs(revenueShareHome + revenueShareAway - 1.0) > 0.000001) {
+            throw new IllegalArgumentException("收益分配比例總和必須為1");
+        }
+        return new RevenueTable(teams, rounds, ticketPricePlayoff, ticketPriceWorldSeries, revenueShareHome, revenueShareAway,
+                money);
+    }
+
+    // 依 config.properties 的票價、分成比例與賽制建立
+    public static RevenueTable fromProperties(TeamTable teams, Properties props) {
+        return build(teams, SeriesFormat.fromProperties(props),
+                PostseasonRevenue3.getDoubleProperty(props, "ticket.price.playoff", 450),
+                PostseasonRevenue3.getDoubleProperty(props, "ticket.price.worldseries", 800),
+                PostseasonRevenue3.getDoubleProperty(props, "revenue.share.home", 0.85),
+                PostseasonRevenue3.getDoubleProperty(props, "revenue.share.away", 0.15),
+                Money.fromProperties(props));
+    }
+
+    public TeamTable teams() {
+        return teams;
+    }
+
+    public int rounds() {
+        return rounds.length;
+    }
+
+    // 單場主場收益（主場分成）
+    public double homeGameRevenue(int team, int round) {
+        return money.dollars(homeGame[team * rounds.length + round]);
+    }
+
+    // 單場客場收益（客場分成）
+    public double awayGameRevenue(int team, int round) {
+        return money.dollars(awayGame[team * rounds.length + round]);
+    }
+
+    // 在第 round 輪被淘汰、本輪主場打了 homeGames 場時的累積主場分成收益
+    public double home(int team, int round, int homeGames) {
+        return money.dollars(home[index(team, round, homeGames)]);
+    }
+
+    // 在第 round 輪被淘汰、本輪客場打了 awayGames 場時的累積客場分成收益
+    public double away(int team, int round, int awayGames) {
+        return money.dollars(away[index(team, round, awayGames)]);
+    }
+
+    // 在第 round 輪被淘汰、本輪主場 homeGames 場、客場 awayGames 場時的累積總收益
+    public double eliminated(int team, int round, int homeGames, int awayGames) {
+        return money.dollars(eliminatedUnits(team, round, homeGames, awayGames));
+    }
+
+    // 同上，以 Money 的最小單位表示，可直接以 long 精確加總
+    public long eliminatedUnits(int team, int round, int homeGames, int awayGames) {
+        return Money.add(home[index(team, round, homeGames)], away[index(team, round, awayGames)]);
+    }
+
+    // 進入第 round 輪時已累積的總收益（前面各輪以低種子打滿）
+    public double reached(int team, int round) {
+        int base = team * stride + roundOffset[round];
+        return money.dollars(Money.add(home[base], away[base]));
+    }
+
+    // 以低種子或高種子身分在第 round 輪打了 gamesPlayed 場，主客場場次取自賽制表
+    public double seriesHome(int team, int round, int gamesPlayed, boolean higherSeed) {
+        return home(team, round, rounds[round].homeGames(gamesPlayed, higherSeed));
+    }
+
+    public double seriesAway(int team, int round, int gamesPlayed, boolean higherSeed) {
+        return away(team, round, rounds[round].awayGames(gamesPlayed, higherSeed));
+    }
+
+    private int index(int team, int round, int games) {
+        if (games < 0 || games > rounds[round].maxGames()) {
+            throw new IllegalArgumentException(rounds[round].key() + " 場次超出範圍: " + games);
+        }
+        return team * stride + roundOffset[round] + games;
+    }
+
+    // 主方法：列出每支球隊進入各輪時的累積收益與打滿整個季後賽的收益
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            RevenueTable table = fromProperties(PostseasonRevenue3.loadConfiguredTeams(props), props);
+            int last = table.rounds() - 1;
+            int lastGames = table.rounds[last].maxGames();
+            for (int t = 0; t < table.teams.size(); t++) {
+                System.out.printf("%nTeam 隊伍: %s%n", table.teams.name(t));
+                for (int r = 0; r < table.rounds(); r++) {
+                    System.out.printf("  進入%s : $%,.2f 美元%n", table.rounds[r].key(), table.reached(t, r));
+                }
+                System.out.printf("  打滿%s : $%,.2f 美元%n", table.rounds[last].key(),
+                        table.seriesHome(t, last, lastGames, false) + table.seriesAway(t, last, lastGames, false));
+            }
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        }
+    }
+}
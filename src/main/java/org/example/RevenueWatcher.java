@@ -0,0 +1,401 @@
+package org.example;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// 常駐模式：以 WatchService 監看 config.properties 與球隊資料檔（JSON 與快照），變更時重新載入並以不可變快照整體替換
+//
+// 只有票價、分成比例或賽制改變時才重算整個聯盟；只改球隊資料時，只重算內容有變的球隊，其餘沿用上一版結果。
+// 讀取端透過 current() 取得的快照永遠是一致的一組設定、球隊與收益。
+public final class RevenueWatcher {
+    private static final long SETTLE_MILLIS = 20; // 編輯器常分多次寫入，收到事件後再等一下合併
+    // 影響收益與對戰樹計算的設定前綴；其他設定（報表格式、連接埠等）改變時，結果快取的項目仍可沿用
+    static final String[] REVENUE_KEYS = {"ticket.", "revenue.share.", "game.", "games.", "sim.", "bracket.",
+            "team.rating.", "team.elo.", "money."};
+
+    // 不可變快照：設定、球隊、情境係數與收益 [scenario * teams + team]
+    public static final class Snapshot {
+        final long version;
+        final Properties config;
+        final PostseasonRevenue3 revenue;
+        final TeamTable teams;
+        final RevenueScenarios scenarios;
+        final double[] playoff;
+        final double[] worldSeries;
+        final double[] revenues;
+        final int[] changed;              // 相對上一版重新計算的球隊列號
+        final Map<String, Integer> rows;  // 球隊名稱與代碼（例如 LAD）→ 列號
+        final long revenueHash;           // REVENUE_KEYS 設定的雜湊
+        final long[] rowHashes;           // 每支球隊名稱、容量與上座率的指紋
+        final long leagueHash;            // 依列號順序合併所有球隊的指紋
+        private volatile Bracket bracket; // 對戰樹模型與結果，第一次查詢時建立，同一版本共用
+
+        private Snapshot(long version, Properties config, PostseasonRevenue3 revenue, TeamTable teams,
+                         RevenueScenarios scenarios, double[] playoff, double[] worldSeries, double[] revenues,
+                         int[] changed, Map<String, Integer> rows, long revenueHash, long[] rowHashes) {
+            this.version = version;
+            this.config = config;
+            this.revenue = revenue;
+            this.teams = teams;
+            this.scenarios = scenarios;
+            this.playoff = playoff;
+            this.worldSeries = worldSeries;
+            this.revenues = revenues;
+            this.changed = changed;
+            this.rows = rows;
+            this.revenueHash = revenueHash;
+            this.rowHashes = rowHashes;
+            long league = rowHashes.length;
+            for (long row : rowHashes) {
+                league = league * 0x9E3779B97F4A7C15L + row;
+            }
+            this.leagueHash = league ^ (league >>> 29);
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public TeamTable teams() {
+            return teams;
+        }
+
+        public RevenueScenarios scenarios() {
+            return scenarios;
+        }
+
+        public double revenue(int team, int scenario) {
+            return revenues[scenario * teams.size + team];
+        }
+
+        // 依球隊名稱或代碼查詢列號，找不到時回傳 -1
+        public int find(String name) {
+            Integer row = rows.get(name);
+            return row == null ? -1 : row;
+        }
+
+        public long revenueHash() {
+            return revenueHash;
+        }
+
+        public long rowHash(int team) {
+            return rowHashes[team];
+        }
+
+        public long leagueHash() {
+            return leagueHash;
+        }
+
+        public int[] changed() {
+            return changed.clone();
+        }
+
+        public String config(String key, String defaultValue) {
+            return config.getProperty(key, defaultValue);
+        }
+
+        // 此版本的對戰樹；BracketModel 與 SeriesEnumerator 狀態表只在第一次呼叫時建立
+        public Bracket bracket() {
+            Bracket result = bracket;
+            if (result == null) {
+                synchronized (this) {
+                    result = bracket;
+                    if (result == null) {
+                        result = new Bracket(new BracketModel(config, teams));
+                        bracket = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    // 一個快照版本的對戰樹模型（種子與聯盟）與計算結果
+    public static final class Bracket {
+        final BracketModel model;
+        final BracketModel.Result result;
+
+        Bracket(BracketModel model) {
+            this.model = model;
+            this.result = model.evaluate();
+        }
+
+        public BracketModel model() {
+            return model;
+        }
+
+        public BracketModel.Result result() {
+            return result;
+        }
+    }
+
+    private final Path configPath;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private volatile long lastReloadNanos;  // 最近一次載入與重算的耗時
+
+    public RevenueWatcher(Path configPath) {
+        this.configPath = configPath.toAbsolutePath().normalize();
+    }
+
+    public Snapshot current() {
+        return current.get();
+    }
+
+    public long lastReloadNanos() {
+        return lastReloadNanos;
+    }
+
+    // 立即重新載入兩個檔案並替換快照；失敗時保留上一版並拋出例外
+    public synchronized Snapshot reload() throws IOException {
+        long start = System.nanoTime();
+        RevenueEvents.ConfigLoad event = RevenueEvents.ENABLED ? new RevenueEvents.ConfigLoad() : null;
+        if (event != null) {
+            event.begin();
+        }
+        Properties config = new Properties();
+        try (InputStream input = Files.newInputStream(configPath)) {
+            config.load(input);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.source = configPath.toString();
+            event.entries = config.size();
+            event.commit();
+        }
+        // 快照過期時直接讀 JSON，不重建快照：快照檔本身也在監看範圍內，寫入會再觸發一次沒有變更的重新載入
+        TeamTable teams = PostseasonRevenue3.loadConfiguredTeams(config, false);
+        Snapshot next = rebuild(current.get(), config, teams);
+        current.set(next);
+        lastReloadNanos = System.nanoTime() - start;
+        return next;
+    }
+
+    // 球隊資料來源：teams.json.path 與 teams.snapshot.path（與 loadConfiguredTeams 相同），任一個變更都要重新載入
+    private static Set<Path> teamsPaths(Properties config) {
+        Set<Path> paths = new HashSet<>();
+        paths.add(Path.of(config.getProperty("teams.json.path", "src/main/resources/teams.json")).toAbsolutePath().normalize());
+        String snapshot = config.getProperty("teams.snapshot.path");
+        if (snapshot != null && !snapshot.trim().isEmpty()) {
+            paths.add(Path.of(snapshot.trim()).toAbsolutePath().normalize());
+        }
+        return paths;
+    }
+
+    // 由上一版快照增量建立新快照
+    static Snapshot rebuild(Snapshot previous, Properties config, TeamTable teams) {
+        PostseasonRevenue3 revenue = new PostseasonRevenue3(config);
+        RevenueScenarios scenarios = revenue.reportScenarios;
+        int n = teams.size;
+        int m = scenarios.size();
+        double[] playoff = new double[m];
+        double[] worldSeries = new double[m];
+        revenue.coefficients(scenarios, playoff, worldSeries);
+
+        Map<String, Integer> rows = new HashMap<>(n * 2);
+        for (int t = 0; t < n; t++) {
+            rows.put(teams.name(t), t);
+        }
+        for (int t = 0; t < n; t++) {
+            rows.putIfAbsent(PostseasonSimulator.teamCode(teams.name(t)), t);
+        }
+        long configHash = revenueHash(config);
+        long[] rowHashes = new long[n];
+        for (int t = 0; t < n; t++) {
+            rowHashes[t] = rowHash(teams, t);
+        }
+
+        double[] revenues = new double[m * n];
+        boolean sameCoefficients = previous != null && Arrays.equals(previous.playoff, playoff)
+                && Arrays.equals(previous.worldSeries, worldSeries);
+        if (!sameCoefficients) {
+            RevenueKernel.best().compute(teams, playoff, worldSeries, revenues);
+            int[] all = new int[n];
+            Arrays.setAll(all, t -> t);
+            return new Snapshot(previous == null ? 1 : previous.version + 1, config, revenue, teams, scenarios,
+                    playoff, worldSeries, revenues, all, rows, configHash, rowHashes);
+        }
+
+        // 係數相同：內容沒變的球隊直接沿用上一版結果，其餘收集起來一次計算
+        int[] changed = new int[n];
+        int changedCount = 0;
+        TeamTable old = previous.teams;
+        for (int t = 0; t < n; t++) {
+            int o = previous.find(teams.name(t));
+            if (o >= 0 && old.capacity(o) == teams.capacity(t)
+                    && old.playoffFillRate(o) == teams.playoffFillRate(t)
+                    && old.worldSeriesFillRate(o) == teams.worldSeriesFillRate(t)) {
+                for (int s = 0; s < m; s++) {
+                    revenues[s * n + t] = previous.revenues[s * old.size + o];
+                }
+            } else {
+                changed[changedCount++] = t;
+            }
+        }
+        if (changedCount > 0) {
+            TeamTable.Builder builder = new TeamTable.Builder(changedCount);
+            for (int i = 0; i < changedCount; i++) {
+                int t = changed[i];
+                builder.add(teams.name(t), teams.stadium(t), teams.capacity(t), teams.playoffFillRate(t),
+                        teams.worldSeriesFillRate(t));
+            }
+            double[] partial = new double[m * changedCount];
+            RevenueKernel.best().compute(builder.build(), playoff, worldSeries, partial);
+            for (int i = 0; i < changedCount; i++) {
+                for (int s = 0; s < m; s++) {
+                    revenues[s * n + changed[i]] = partial[s * changedCount + i];
+                }
+            }
+        }
+        return new Snapshot(previous.version + 1, config, revenue, teams, scenarios, playoff, worldSeries, revenues,
+                Arrays.copyOf(changed, changedCount), rows, configHash, rowHashes);
+    }
+
+    // 只涵蓋 REVENUE_KEYS 開頭的設定，依鍵排序後混合；內容相同的設定（例如改回先前的值）得到相同的雜湊
+    static long revenueHash(Properties config) {
+        long h = 0;
+        for (String key : new TreeSet<>(config.stringPropertyNames())) {
+            for (String prefix : REVENUE_KEYS) {
+                if (key.startsWith(prefix)) {
+                    h = mix(mix(h, key), config.getProperty(key).trim());
+                    break;
+                }
+            }
+        }
+        return h ^ (h >>> 29);
+    }
+
+    static long rowHash(TeamTable teams, int t) {
+        long h = mix(0, teams.name(t));
+        h = h * 0x9E3779B97F4A7C15L + teams.capacity(t);
+        h = h * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(teams.playoffFillRate(t));
+        h = h * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(teams.worldSeriesFillRate(t));
+        return h ^ (h >>> 29);
+    }
+
+    private static long mix(long h, String value) {
+        h = h * 0x9E3779B97F4A7C15L + value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h = h * 0x9E3779B97F4A7C15L + value.charAt(i);
+        }
+        return h;
+    }
+
+    // 監看設定檔與球隊資料檔所在目錄，檔案變更時重新載入並呼叫 listener；此方法會一直執行到執行緒被中斷
+    public void watch(Consumer<Snapshot> listener) throws IOException, InterruptedException {
+        if (current.get() == null) {
+            listener.accept(reload());
+        }
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            Map<Path, WatchKey> watched = new HashMap<>();
+            while (true) {
+                Set<Path> teamsPaths = teamsPaths(current.get().config);
+                Set<Path> directories = new HashSet<>();
+                directories.add(configPath.getParent());
+                for (Path path : teamsPaths) {
+                    directories.add(path.getParent());
+                }
+                directories.remove(null);
+                register(service, watched, directories);
+
+                WatchKey key = service.take();
+                boolean relevant = false;
+                while (key != null) {
+                    Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            relevant = true;
+                            continue;
+                        }
+                        Path changedPath = directory.resolve((Path) event.context());
+                        relevant |= changedPath.equals(configPath) || teamsPaths.contains(changedPath);
+                    }
+                    key.reset();
+                    key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (!relevant) {
+                    continue;
+                }
+                try {
+                    listener.accept(reload());
+                } catch (IOException | IllegalArgumentException e) {
+                    System.err.println("重新載入失敗，繼續使用第 " + current.get().version + " 版: " + e.getMessage());
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // 監看服務已關閉
+        }
+    }
+
+    // 讓監看的目錄剛好是 directories：設定改變後不再需要的目錄取消註冊，新的目錄加入
+    private static void register(WatchService service, Map<Path, WatchKey> watched, Set<Path> directories)
+            throws IOException {
+        Iterator<Map.Entry<Path, WatchKey>> entries = watched.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Path, WatchKey> entry = entries.next();
+            if (!directories.contains(entry.getKey()) || !entry.getValue().isValid()) {
+                entry.getValue().cancel();
+                entries.remove();
+            }
+        }
+        for (Path directory : directories) {
+            if (!watched.containsKey(directory)) {
+                watched.put(directory, directory.register(service,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+            }
+        }
+    }
+
+    // 輸出新快照中重新計算的球隊
+    static void printChanged(Snapshot snapshot, long elapsedNanos) {
+        try (RevenueReportWriter report = new RevenueReportWriter(new FileOutputStream(FileDescriptor.out).getChannel(),
+                false, RevenueReportWriter.Format.TEXT,
+                new MoneyFormat(snapshot.config("currency.format", "$#,##0.00")))) {
+            for (int t : snapshot.changed) {
+                report.team(snapshot.teams.name(t));
+                for (int s = 0; s < snapshot.scenarios.size(); s++) {
+                    report.amount(snapshot.scenarios.name(s), snapshot.revenue(t, s));
+                }
+            }
+            report.line("");
+            report.line("第 " + snapshot.version + " 版：" + snapshot.teams.size() + " 支球隊，重新計算 "
+                    + snapshot.changed.length + " 支，耗時 " + String.format("%.3f", elapsedNanos / 1e6) + " 毫秒");
+        } catch (IOException e) {
+            System.err.println("寫入報表時發生錯誤: " + e.getMessage());
+        }
+    }
+
+    // 主方法：參數為設定檔路徑（預設 src/main/resources/config.properties），持續監看直到程式結束
+    public static void main(String[] args) {
+        RevenueWatcher watcher = new RevenueWatcher(Path.of(args.length > 0 ? args[0] : "src/main/resources/config.properties"));
+        try {
+            System.out.println("監看 " + watcher.configPath + "，按 Ctrl+C 結束");
+            watcher.watch(snapshot -> printChanged(snapshot, watcher.lastReloadNanos()));
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
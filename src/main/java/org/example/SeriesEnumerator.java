@@ -0,0 +1,190 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+// 系列賽結果精確枚舉：以 (高種子勝場, 低種子勝場, 第幾場) 狀態表計算每種結束方式的機率，並快取結果
+//
+// 快取以賽制的內容（晉級勝場與主場分配）而非物件身分為鍵，重新解析設定得到的相同賽制共用同一筆；
+// 勝率是連續值，因此快取只保留最近使用的 CACHE_LIMIT 筆，常駐服務不會無限制累積。
+public final class SeriesEnumerator {
+    static final int CACHE_LIMIT = 4096;
+    private static final Map<Key, SeriesOutcomes> CACHE = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, SeriesOutcomes> eldest) {
+            return size() > CACHE_LIMIT;
+        }
+    };
+
+    private SeriesEnumerator() {
+    }
+
+    // 取得系列賽結果表；highHomeWin / highAwayWin 為高種子在主場、客場的單場勝率
+    public static SeriesOutcomes outcomes(SeriesFormat format, double highHomeWin, double highAwayWin) {
+        if (highHomeWin < 0 || highHomeWin > 1 || highAwayWin < 0 || highAwayWin > 1) {
+            throw new IllegalArgumentException("單場勝率必須在0到1之間");
+        }
+        Key key = new Key(format, highHomeWin, highAwayWin);
+        synchronized (CACHE) {
+            SeriesOutcomes cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // 枚舉只需數微秒，不在鎖內計算；同時計算同一個鍵時保留先放入的結果
+        SeriesOutcomes computed = enumerate(format, highHomeWin, highAwayWin);
+        synchronized (CACHE) {
+            SeriesOutcomes previous = CACHE.putIfAbsent(key, computed);
+            return previous != null ? previous : computed;
+        }
+    }
+
+    // 目前快取的結果表數量
+    static int cacheSize() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    // 逐場推進狀態表 state[高種子勝場][低種子勝場]，第幾場 = 兩隊勝場之和
+    private static SeriesOutcomes enumerate(SeriesFormat format, double highHomeWin, double highAwayWin) {
+        int need = format.winsNeeded();
+        double[][] state = new double[need + 1][need + 1];
+        double[] highWinsIn = new double[format.maxGames() + 1];
+        double[] lowWinsIn = new double[format.maxGames() + 1];
+        double[] played = new double[format.maxGames() * GameRevenueModel.STATUSES];
+        state[0][0] = 1;
+        for (int game = 0; game < format.maxGames(); game++) {
+            double p = format.isHigherSeedHome(game) ? highHomeWin : highAwayWin;
+            for (int high = Math.max(0, game - need + 1); high <= Math.min(game, need - 1); high++) {
+                int low = game - high;
+                double reach = state[high][low];
+                if (reach == 0) {
+                    continue;
+                }
+                played[game * GameRevenueModel.STATUSES + GameRevenueModel.status(high, low, need)] += reach;
+                state[high + 1][low] += reach * p;
+                state[high][low + 1] += reach * (1 - p);
+            }
+        }
+        for (int other = 0; other < need; other++) {
+            highWinsIn[need + other] = state[need][other];
+            lowWinsIn[need + other] = state[other][need];
+        }
+        return new SeriesOutcomes(format, highWinsIn, lowWinsIn, played);
+    }
+
+    // 單一系列賽的結果表（以高種子視角儲存）
+    public static final class SeriesOutcomes {
+        private final SeriesFormat format;
+        private final double[] highWinsIn;  // 高種子在第 g 場晉級的機率
+        private final double[] lowWinsIn;   // 低種子在第 g 場晉級的機率
+        private final double[] played;      // [game * STATUSES + status]：第 game 場以該狀態開打的機率
+
+        SeriesOutcomes(SeriesFormat format, double[] highWinsIn, double[] lowWinsIn, double[] played) {
+            this.format = format;
+            this.highWinsIn = highWinsIn;
+            this.lowWinsIn = lowWinsIn;
+            this.played = played;
+        }
+
+        // 第 game 場（從 0 起算）以指定狀態開打的機率
+        public double playedProbability(int game, int status) {
+            return played[game * GameRevenueModel.STATUSES + status];
+        }
+
+        // 依單場收益表（GameRevenueModel.fillTeamTables 的結果）計算指定球隊在第 round 輪的期望收益
+        public double expectedGameRevenue(GameRevenueModel model, int round, boolean higherSeed,
+                                          double[] home, double[] away, int offset) {
+            double expected = 0;
+            for (int game = 0; game < format.maxGames(); game++) {
+                double[] table = format.isHigherSeedHome(game) == higherSeed ? home : away;
+                for (int status = 0; status < GameRevenueModel.STATUSES; status++) {
+                    double p = played[game * GameRevenueModel.STATUSES + status];
+                    if (p != 0) {
+                        expected += p * table[offset + model.index(round, game, status)];
+                    }
+                }
+            }
+            return expected;
+        }
+
+        public SeriesFormat format() {
+            return format;
+        }
+
+        // 指定球隊在 gamesPlayed 場後晉級（won）或被淘汰的機率
+        public double probability(boolean higherSeed, boolean won, int gamesPlayed) {
+            boolean highWon = higherSeed == won;
+            return highWon ? highWinsIn[gamesPlayed] : lowWinsIn[gamesPlayed];
+        }
+
+        // 指定球隊贏得系列賽的機率
+        public double winProbability(boolean higherSeed) {
+            double high = 0;
+            for (double p : highWinsIn) {
+                high += p;
+            }
+            return higherSeed ? high : 1 - high;
+        }
+    }
+
+    // 快取鍵：賽制與兩種單場勝率
+    private static final class Key {
+        private final SeriesFormat format;
+        private final long highHomeWin;
+        private final long highAwayWin;
+
+        Key(SeriesFormat format, double highHomeWin, double highAwayWin) {
+            this.format = format;
+            this.highHomeWin = Double.doubleToLongBits(highHomeWin);
+            this.highAwayWin = Double.doubleToLongBits(highAwayWin);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return format.equals(other.format) && highHomeWin == other.highHomeWin && highAwayWin == other.highAwayWin;
+        }
+
+        @Override
+        public int hashCode() {
+            return (format.hashCode() * 31 + Long.hashCode(highHomeWin)) * 31 + Long.hashCode(highAwayWin);
+        }
+    }
+
+    // 主方法：打印各輪賽制在均勢對戰下的結束機率與主客場場次
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            for (SeriesFormat format : SeriesFormat.fromProperties(props)) {
+                SeriesOutcomes series = outcomes(format, 0.5, 0.5);
+                System.out.printf("%n%s (%s, 先贏 %d 場)%n", format.key(), format.pattern(), format.winsNeeded());
+                for (int g = format.winsNeeded(); g <= format.maxGames(); g++) {
+                    System.out.printf("  %d 場結束: 機率 %.4f, 高種子主場 %d / 客場 %d%n",
+                            g, series.probability(true, true, g) + series.probability(true, false, g),
+                            format.homeGames(g, true), format.awayGames(g, true));
+                }
+                System.out.printf("  主場分配: %s%n", Arrays.toString(homePattern(format)));
+            }
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        }
+    }
+
+    private static char[] homePattern(SeriesFormat format) {
+        char[] pattern = new char[format.maxGames()];
+        for (int g = 0; g < pattern.length; g++) {
+            pattern[g] = format.isHigherSeedHome(g) ? 'H' : 'A';
+        }
+        return pattern;
+    }
+}
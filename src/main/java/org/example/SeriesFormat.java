@@ -0,0 +1,134 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+// 系列賽賽制：晉級所需勝場與主場分配（例如 2-3-2、2-2-1、2-2-1-1-1）
+public final class SeriesFormat {
+    public static final String[] ROUND_KEYS = {"wildcard", "division", "championship", "worldseries"};
+    private static final int[] DEFAULT_WINS = {2, 3, 4, 4};
+    private static final String[] DEFAULT_PATTERNS = {"3", "2-2-1", "2-3-2", "2-3-2"};
+
+    private final String key;           // 設定鍵名，例如 "division"
+    private final String pattern;       // 主場分配字串，例如 "2-3-2"
+    private final int winsNeeded;       // 晉級所需勝場
+    private final boolean[] higherSeedHome;   // 第 g 場是否由高種子主辦
+    private final int[] higherSeedHomeCount;  // 前 g 場中高種子的主場場次
+
+    public SeriesFormat(String key, int winsNeeded, String pattern) {
+        if (winsNeeded <= 0) {
+            throw new IllegalArgumentException("晉級所需勝場必須大於0: " + key);
+        }
+        this.key = key;
+        this.pattern = pattern;
+        this.winsNeeded = winsNeeded;
+        this.higherSeedHome = parsePattern(key, pattern, 2 * winsNeeded - 1);
+        this.higherSeedHomeCount = new int[higherSeedHome.length + 1];
+        for (int g = 0; g < higherSeedHome.length; g++) {
+            higherSeedHomeCount[g + 1] = higherSeedHomeCount[g] + (higherSeedHome[g] ? 1 : 0);
+        }
+    }
+
+    // 解析主場分配字串：各區段輪流由高種子、低種子主辦，第一段屬於高種子
+    private static boolean[] parsePattern(String key, String pattern, int maxGames) {
+        boolean[] home = new boolean[maxGames];
+        int game = 0;
+        boolean higher = true;
+        try {
+            for (String block : pattern.trim().split("-")) {
+                int length = Integer.parseInt(block.trim());
+                for (int i = 0; i < length; i++) {
+                    if (game >= maxGames) {
+                        throw new IllegalArgumentException("主場分配場次超過系列賽上限: games." + key + ".pattern");
+                    }
+                    home[game++] = higher;
+                }
+                higher = !higher;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("無效的主場分配設定: games." + key + ".pattern");
+        }
+        if (game != maxGames) {
+            throw new IllegalArgumentException("主場分配場次與系列賽上限不符: games." + key + ".pattern");
+        }
+        return home;
+    }
+
+    // 從配置檔讀取四輪賽制（games.<round>.min/max/pattern）
+    public static SeriesFormat[] fromProperties(Properties props) {
+        SeriesFormat[] rounds = new SeriesFormat[ROUND_KEYS.length];
+        for (int r = 0; r < ROUND_KEYS.length; r++) {
+            String prefix = "games." + ROUND_KEYS[r];
+            int min = PostseasonRevenue3.getIntProperty(props, prefix + ".min", DEFAULT_WINS[r]);
+            int max = PostseasonRevenue3.getIntProperty(props, prefix + ".max", 2 * min - 1);
+            if (max != 2 * min - 1) {
+                throw new IllegalArgumentException("無效的系列賽場次設定: " + prefix);
+            }
+            rounds[r] = new SeriesFormat(ROUND_KEYS[r], min, props.getProperty(prefix + ".pattern", DEFAULT_PATTERNS[r]));
+        }
+        return rounds;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    public int winsNeeded() {
+        return winsNeeded;
+    }
+
+    public int maxGames() {
+        return higherSeedHome.length;
+    }
+
+    // 第 gameIndex 場（從 0 起算）是否由高種子主辦
+    public boolean isHigherSeedHome(int gameIndex) {
+        return higherSeedHome[gameIndex];
+    }
+
+    // 系列賽打了 gamesPlayed 場時，該隊的主場場次
+    public int homeGames(int gamesPlayed, boolean higherSeed) {
+        checkGamesPlayed(gamesPlayed);
+        int higherHome = higherSeedHomeCount[gamesPlayed];
+        return higherSeed ? higherHome : gamesPlayed - higherHome;
+    }
+
+    // 系列賽打了 gamesPlayed 場時，該隊的客場場次
+    public int awayGames(int gamesPlayed, boolean higherSeed) {
+        return gamesPlayed - homeGames(gamesPlayed, higherSeed);
+    }
+
+    // 主場 home 場、客場 away 場是否為高種子或低種子打完一個系列賽時可能的場次分配
+    public boolean allowsHomeAway(int home, int away) {
+        int played = home + away;
+        if (home < 0 || away < 0 || played < winsNeeded || played > maxGames()) {
+            return false;
+        }
+        return homeGames(played, true) == home || homeGames(played, false) == home;
+    }
+
+    // 兩個賽制的晉級勝場與每場主場歸屬都相同時視為相等（與設定鍵名、分配字串的寫法無關）
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof SeriesFormat)) {
+            return false;
+        }
+        SeriesFormat other = (SeriesFormat) o;
+        return winsNeeded == other.winsNeeded && Arrays.equals(higherSeedHome, other.higherSeedHome);
+    }
+
+    @Override
+    public int hashCode() {
+        return winsNeeded * 31 + Arrays.hashCode(higherSeedHome);
+    }
+
+    private void checkGamesPlayed(int gamesPlayed) {
+        if (gamesPlayed < 0 || gamesPlayed > higherSeedHome.length) {
+            throw new IllegalArgumentException("比賽場次超出系列賽範圍: " + key + " " + gamesPlayed);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+// 啟動時間測試：反覆以子行程執行收益計算，量測從啟動到第一行輸出（time-to-first-output）與到結束的時間
+//
+// 比較的組合：
+//   classpath       startup.baseline.classpath 指定的 classpath（例如含 pmd-java 的完整依賴），未設定時略過
+//   jar             只含執行期依賴的 revenue-launcher.jar
+//   jar+cds         同上，加上 AppCDS 封存（先以 -XX:ArchiveClassesAtExit 執行一次產生）
+//   jar+cds+c1      同上，再加上 C1 編譯器與 Serial GC
+//   launcher        bin/revenue.sh 的完整參數：再以 -Drevenue.jfr=false 關閉自訂 JFR 事件（另以同樣參數產生封存）
+public final class StartupBenchmark {
+
+    // 一種啟動方式
+    static final class Variant {
+        final String name;
+        final List<String> command;
+
+        Variant(String name, List<String> command) {
+            this.name = name;
+            this.command = command;
+        }
+    }
+
+    private final String mainClass;
+    private final int warmups;
+    private final int runs;
+
+    public StartupBenchmark(Properties props) {
+        this.mainClass = props.getProperty("startup.main", "org.example.PostseasonRevenue3");
+        this.warmups = PostseasonRevenue3.getIntProperty(props, "startup.warmups", 2);
+        this.runs = PostseasonRevenue3.getIntProperty(props, "startup.runs", 20);
+        if (warmups < 0 || runs <= 0) {
+            throw new IllegalArgumentException("startup.warmups 不能為負數，startup.runs 必須大於0");
+        }
+    }
+
+    static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private List<String> command(String classpath, String... options) {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(Arrays.asList(options));
+        command.add("-cp");
+        command.add(classpath);
+        command.add(mainClass);
+        return command;
+    }
+
+    // 依設定組出要比較的啟動方式；需要時先產生 AppCDS 封存
+    List<Variant> variants(Properties props) throws IOException, InterruptedException {
+        Path jar = Path.of(props.getProperty("startup.jar", "target/revenue-launcher.jar"));
+        if (!Files.isRegularFile(jar)) {
+            throw new IOException("找不到啟動器 jar: " + jar + "（請先執行 mvn -Plauncher package）");
+        }
+        List<Variant> variants = new ArrayList<>();
+        String baseline = props.getProperty("startup.baseline.classpath", "").trim();
+        if (!baseline.isEmpty()) {
+            variants.add(new Variant("classpath", command(baseline)));
+        }
+        variants.add(new Variant("jar", command(jar.toString())));
+
+        String share = archive(jar, "startup-benchmark.jsa");
+        variants.add(new Variant("jar+cds", command(jar.toString(), share)));
+        variants.add(new Variant("jar+cds+c1", command(jar.toString(), share,
+                "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC")));
+        // 關閉 JFR 事件後載入的類別不同，封存要以同樣的參數另外產生
+        String launcher = archive(jar, "startup-benchmark-nojfr.jsa", "-Drevenue.jfr=false");
+        variants.add(new Variant("launcher", command(jar.toString(), launcher,
+                "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-Drevenue.jfr=false")));
+        return variants;
+    }
+
+    // 以 -XX:ArchiveClassesAtExit 執行一次產生 AppCDS 封存，回傳使用該封存的 JVM 參數
+    private String archive(Path jar, String name, String... options) throws IOException, InterruptedException {
+        Path archive = jar.resolveSibling(name);
+        Files.deleteIfExists(archive);
+        List<String> training = new ArrayList<>(Arrays.asList(options));
+        training.add("-XX:ArchiveClassesAtExit=" + archive);
+        run(command(jar.toString(), training.toArray(new String[0])));
+        if (!Files.isRegularFile(archive)) {
+            throw new IOException("無法產生 AppCDS 封存: " + archive);
+        }
+        return "-XX:SharedArchiveFile=" + archive;
+    }
+
+    // 執行一次，回傳 {到第一行輸出的奈秒數, 到結束的奈秒數}
+    static long[] run(List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        long first = -1;
+        try (InputStream output = process.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            boolean content = false;
+            int read;
+            while ((read = output.read(buffer)) > 0) {
+                for (int i = 0; i < read && first < 0; i++) {
+                    if (buffer[i] == '\n' && content) {
+                        first = System.nanoTime() - start;
+                    } else if (buffer[i] != '\n' && buffer[i] != '\r') {
+                        content = true;
+                    }
+                }
+            }
+        }
+        int exit = process.waitFor();
+        long total = System.nanoTime() - start;
+        if (exit != 0) {
+            throw new IOException("子行程結束碼 " + exit + ": " + String.join(" ", command));
+        }
+        return new long[]{first < 0 ? total : first, total};
+    }
+
+    // 量測一種啟動方式，回傳排序後的 {第一行輸出, 結束} 奈秒數
+    long[][] measure(Variant variant) throws IOException, InterruptedException {
+        for (int i = 0; i < warmups; i++) {
+            run(variant.command);
+        }
+        long[] first = new long[runs];
+        long[] total = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long[] result = run(variant.command);
+            first[i] = result[0];
+            total[i] = result[1];
+        }
+        Arrays.sort(first);
+        Arrays.sort(total);
+        return new long[][]{first, total};
+    }
+
+    private static double percentile(long[] sorted, double q) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)] / 1e6;
+    }
+
+    // 主方法：依 startup.* 設定比較各種啟動方式
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            StartupBenchmark benchmark = new StartupBenchmark(props);
+            System.out.printf("%-12s %14s %14s %14s %14s%n", "啟動方式", "首行輸出 P50", "首行輸出 P90", "結束 P50", "結束 P90");
+            for (Variant variant : benchmark.variants(props)) {
+                long[][] result = benchmark.measure(variant);
+                System.out.printf("%-12s %11.1f ms %11.1f ms %11.1f ms %11.1f ms%n", variant.name,
+                        percentile(result[0], 0.5), percentile(result[0], 0.9),
+                        percentile(result[1], 0.5), percentile(result[1], 0.9));
+            }
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("配置文件中的參數無效: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package org.example;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -42,9 +46,17 @@ class PostseasonRevenue3 {
     private final double ticketPriceWorldSeries; // 世界大賽票價
     private final double revenueShareHome;       // 主場收益分成比例
     private final double revenueShareAway;       // 客場收益分成比例
+    final SeriesFormat[] rounds;                 // 各輪賽制（外卡賽、分區系列賽、聯盟冠軍賽、世界大賽）
+    private final String currencyFormat;         // 金額輸出格式
+    final Money money;                           // 定點金額單位（money.decimals）
+    final RevenueScenarios reportScenarios;      // 報表情境（scenario.*），載入時已加總為主客場場次
 
     // PostseasonRevenue3 類別的建構函數
     public PostseasonRevenue3(Properties props) throws IllegalArgumentException {
+        RevenueEvents.ConfigParse event = RevenueEvents.ENABLED ? new RevenueEvents.ConfigParse() : null;
+        if (event != null) {
+            event.begin();
+        }
         // 從配置檔案讀取各項參數，如果沒有設定則使用預設值
         this.ticketPricePlayoff = getDoubleProperty(props, "ticket.price.playoff", 450);
         this.ticketPriceWorldSeries = getDoubleProperty(props, "ticket.price.worldseries", 800);
@@ -55,10 +67,20 @@ class PostseasonRevenue3 {
         if (Math.abs(this.revenueShareHome + this.revenueShareAway - 1.0) > 0.000001) {
             throw new IllegalArgumentException("收益分配比例總和必須為1");
         }
+
+        // 讀取各輪賽制，主客場場次由賽制計算而非手動指定
+        this.rounds = SeriesFormat.fromProperties(props);
+        this.currencyFormat = props.getProperty("currency.format", "$#,##0.00");
+        this.money = Money.fromProperties(props);
+        this.reportScenarios = RevenueScenarios.fromProperties(props, rounds);
+        if (event != null && event.shouldCommit()) {
+            event.component = "PostseasonRevenue3";
+            event.commit();
+        }
     }
 
     // 從 Properties 物件中讀取 double 類型的屬性值
-    private double getDoubleProperty(Properties props, String key, double defaultValue) throws IllegalArgumentException {
+    static double getDoubleProperty(Properties props, String key, double defaultValue) throws IllegalArgumentException {
         String value = props.getProperty(key);
         if (value == null) {
             return defaultValue;
@@ -70,8 +92,47 @@ class PostseasonRevenue3 {
         }
     }
 
+    // 從 Properties 物件中讀取 int 類型的屬性值
+    static int getIntProperty(Properties props, String key, int defaultValue) throws IllegalArgumentException {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("無效的數值設定: " + key);
+        }
+    }
+
+    // 從 classpath 讀取 config.properties
+    static Properties loadProperties() throws IOException {
+        RevenueEvents.ConfigLoad event = RevenueEvents.ENABLED ? new RevenueEvents.ConfigLoad() : null;
+        if (event != null) {
+            event.begin();
+        }
+        Properties props = new Properties();
+        try (InputStream input = PostseasonRevenue3.class.getClassLoader().getResourceAsStream("config.properties")) {
+            if (input == null) {
+                throw new IOException("無法找到 config.properties 文件");
+            }
+            props.load(input);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.source = "classpath:config.properties";
+            event.entries = props.size();
+            event.commit();
+        }
+        return props;
+    }
+
     // 從 JSON 文件讀取球隊數據
-    private static List<Team3> readTeamsFromJson(String filename) throws IOException, ParseException {
+    static List<Team3> readTeamsFromJson(String filename) throws IOException, ParseException {
+        long start = System.nanoTime();
+        RevenueEvents.TeamLoad event = RevenueEvents.ENABLED ? new RevenueEvents.TeamLoad() : null;
+        if (event != null) {
+            event.begin();
+        }
         List<Team3> teams = new ArrayList<>();
         JSONParser parser = new JSONParser();
 
@@ -90,11 +151,97 @@ class PostseasonRevenue3 {
             }
         }
 
+        if (event != null && event.shouldCommit()) {
+            event.source = filename;
+            event.format = "json-simple";
+            event.records = teams.size();
+            event.teams = teams.size();
+            event.bytes = Files.size(Path.of(filename));
+            event.commit();
+        }
+        RevenueMetrics.LOAD.recordSince(start);
+        RevenueMetrics.TEAMS_LOADED.add(teams.size());
+        return teams;
+    }
+
+    // 載入配置中的球隊資料：teams.snapshot.path 存在時優先使用快照，否則讀取 teams.json.path
+    // 快照的 header 記錄來源 JSON 的修改時間與大小，不一致（或快照版本較舊）時改讀 JSON 並重建快照
+    static TeamTable loadConfiguredTeams(Properties props) throws IOException {
+        return loadConfiguredTeams(props, true);
+    }
+
+    // rebuildSnapshot 為 false 時快照過期只改讀 JSON、不寫檔（監看模式中寫入快照會再觸發一次重新載入）
+    static TeamTable loadConfiguredTeams(Properties props, boolean rebuildSnapshot) throws IOException {
+        String json = props.getProperty("teams.json.path", "src/main/resources/teams.json");
+        String snapshot = props.getProperty("teams.snapshot.path");
+        if (snapshot == null || !Files.isRegularFile(Path.of(snapshot))) {
+            return loadTeams(json);
+        }
+        Path snapshotPath = Path.of(snapshot);
+        Path source = Path.of(json);
+        if (!Files.isRegularFile(source) || TeamSnapshot.isCurrent(snapshotPath, source)) {
+            return loadTeams(snapshot);
+        }
+        if (!rebuildSnapshot) {
+            return loadTeams(json);
+        }
+        long sourceMillis = Files.getLastModifiedTime(source).toMillis();
+        long sourceSize = Files.size(source);
+        TeamTable teams = loadTeams(json);
+        System.err.println("快照 " + snapshot + " 與 " + json + " 不一致，已重新建立");
+        try {
+            TeamSnapshot.write(teams, snapshotPath, sourceMillis, sourceSize);
+        } catch (IOException e) {
+            System.err.println("重建快照時發生錯誤: " + e.getMessage());
+        }
+        return teams;
+    }
+
+    // 載入球隊欄位表：快照檔以記憶體對映讀取，JSON 以串流方式讀取，格式錯誤的資料會列出後略過
+    static TeamTable loadTeams(String filename) throws IOException {
+        long start = System.nanoTime();
+        RevenueEvents.TeamLoad event = RevenueEvents.ENABLED ? new RevenueEvents.TeamLoad() : null;
+        if (event != null) {
+            event.begin();
+        }
+        Path path = Path.of(filename);
+        TeamTable teams;
+        if (TeamSnapshot.isSnapshot(path)) {
+            teams = TeamSnapshot.read(path);
+            if (event != null) {
+                event.format = "snapshot";
+                event.records = teams.size();
+            }
+        } else {
+            TeamJsonLoader.Result result = TeamJsonLoader.load(path);
+            for (TeamJsonLoader.RecordError error : result.errors) {
+                System.err.println("略過 " + filename + " " + error);
+            }
+            teams = result.teams;
+            if (event != null) {
+                event.format = "json";
+                event.records = result.records;
+                event.skipped = result.errors.size();
+            }
+        }
+        if (event != null && event.shouldCommit()) {
+            event.source = filename;
+            event.teams = teams.size();
+            event.bytes = Files.size(path);
+            event.commit();
+        }
+        RevenueMetrics.LOAD.recordSince(start);
+        RevenueMetrics.TEAMS_LOADED.add(teams.size());
         return teams;
     }
 
     // 計算單支球隊在特定情況下的收益
-    private double calculateRevenue(Team3 team, int homeGames, int awayGames, boolean isWorldSeries) {
+    double calculateRevenue(Team3 team, int homeGames, int awayGames, boolean isWorldSeries) {
+        return money.dollars(calculateRevenueUnits(team, homeGames, awayGames, isWorldSeries));
+    }
+
+    // 同上，以定點單位（預設為分）計算：每場主客場收益各捨入一次，再以整數乘上場次並加總
+    long calculateRevenueUnits(Team3 team, int homeGames, int awayGames, boolean isWorldSeries) {
         if (homeGames < 0 || awayGames < 0) {
             throw new IllegalArgumentException("比賽場次不能為負數");
         }
@@ -104,44 +251,96 @@ class PostseasonRevenue3 {
         double fillRate = isWorldSeries ? team.worldSeriesFillRate : team.playoffFillRate;
 
         // 計算主場和客場收益
-        double homeRevenue = team.capacity * fillRate * ticketPrice * revenueShareHome * homeGames;
-        double awayRevenue = team.capacity * fillRate * ticketPrice * revenueShareAway * awayGames;
+        long homeRevenue = Money.times(money.gate(team.capacity, fillRate, ticketPrice, revenueShareHome), homeGames);
+        long awayRevenue = Money.times(money.gate(team.capacity, fillRate, ticketPrice, revenueShareAway), awayGames);
+
+        return Money.add(homeRevenue, awayRevenue);
+    }
+
+    // 一場實際比賽分到的收益：以實際入場人數與票價取代球場容量、上座率與設定票價（供 RevenueLedger 使用）
+    long gameUnits(int attendance, double price, boolean home) {
+        return money.gate(attendance, 1.0, price, home ? revenueShareHome : revenueShareAway);
+    }
+
+    // 以批次核心一次計算所有球隊 × 所有情境的收益，結果存放於 [scenario * teams + team]
+    double[] calculateAll(TeamTable teams, RevenueScenarios scenarios) {
+        double[] playoff = new double[scenarios.size()];
+        double[] worldSeries = new double[scenarios.size()];
+        coefficients(scenarios, playoff, worldSeries);
+        double[] out = new double[scenarios.size() * teams.size()];
+        RevenueKernel.best().compute(teams, playoff, worldSeries, out);
+        return out;
+    }
+
+    // 依本物件的票價與分成比例計算情境係數
+    void coefficients(RevenueScenarios scenarios, double[] playoff, double[] worldSeries) {
+        RevenueKernel.coefficients(scenarios, ticketPricePlayoff, ticketPriceWorldSeries,
+                revenueShareHome, revenueShareAway, playoff, worldSeries);
+    }
+
+    // 同上，但主場與客場分成分開計算（供 RevenueStore 寫出主客場收益）
+    void homeAwayCoefficients(RevenueScenarios scenarios, double[] playoffHome, double[] worldSeriesHome,
+                              double[] playoffAway, double[] worldSeriesAway) {
+        RevenueKernel.coefficients(scenarios, ticketPricePlayoff, ticketPriceWorldSeries,
+                revenueShareHome, 0, playoffHome, worldSeriesHome);
+        RevenueKernel.coefficients(scenarios, ticketPricePlayoff, ticketPriceWorldSeries,
+                0, revenueShareAway, playoffAway, worldSeriesAway);
+    }
+
+    // 計算並打印所有球隊的收益情況（文字格式輸出到標準輸出）
+    public void calculateAndPrintRevenues(List<Team3> teams) throws IOException {
+        try (RevenueReportWriter report = new RevenueReportWriter(
+                new FileOutputStream(FileDescriptor.out).getChannel(), false,
+                RevenueReportWriter.Format.TEXT, new MoneyFormat(currencyFormat))) {
+            calculateAndPrintRevenues(teams, report);
+        }
+    }
 
-        return homeRevenue + awayRevenue;
+    // 計算所有球隊的收益情況並寫入報表
+    public void calculateAndPrintRevenues(List<Team3> teams, RevenueReportWriter report) {
+        calculateAndPrintRevenues(teams, report, Collections.emptyMap());
     }
 
-    // 計算並打印所有球隊的收益情況
-    public void calculateAndPrintRevenues(List<Team3> teams) {
+    // 同上，simulated 中有該球隊（依名稱）的模擬收益分佈時，另外列出 P5 / P50 / P95 與期望收益
+    void calculateAndPrintRevenues(List<Team3> teams, RevenueReportWriter report,
+                                   Map<String, RevenueDistribution> simulated) {
+        calculateAndPrintRevenues(teams, reportScenarios, report, simulated);
+    }
+
+    // 以指定的情境取代報表情境（例如效能測試依情境數產生的情境）
+    void calculateAndPrintRevenues(List<Team3> teams, RevenueScenarios scenarios, RevenueReportWriter report,
+                                   Map<String, RevenueDistribution> simulated) {
+        // 每支球隊的四種單場收益（季後賽 / 世界大賽 × 主場 / 客場）各捨入一次，情境收益是單場收益 × 場次的精確加總
+        int m = scenarios.size();
+        long[] revenues = new long[m];
         for (Team3 team : teams) {
-            try {
-                // 計算最差情況：在外卡賽被淘汰（客場2場）
-                double worstRevenue = calculateRevenue(team, 0, 2, false);
-
-                // 計算最好情況：打到世界大賽第7場（假設是較低種子，主場3場，客場4場）
-                double bestRevenue = calculateRevenue(team, 2, 1, false) + // 外卡賽
-                        calculateRevenue(team, 2, 3, false) + // 分區系列賽
-                        calculateRevenue(team, 3, 4, false) + // 聯盟冠軍賽
-                        calculateRevenue(team, 3, 4, true);   // 世界大賽
-
-                // 計算其他情境
-                // 在分區系列賽被淘汰
-                double eliminatedInDivisionSeries = calculateRevenue(team, 2, 1, false) + // 外卡賽
-                        calculateRevenue(team, 0, 3, false);  // 分區系列賽
-
-                // 在聯盟冠軍賽被淘汰
-                double eliminatedInChampionshipSeries = calculateRevenue(team, 2, 1, false) + // 外卡賽
-                        calculateRevenue(team, 2, 3, false) + // 分區系列賽
-                        calculateRevenue(team, 0, 4, false);  // 聯盟冠軍賽
-
-                // 打印結果
-                System.out.printf("%nTeam 隊伍: %s%n", team.name);
-                System.out.printf("Eliminated in Division Series 在分區系列賽淘汰 : $%.2f 美元%n", eliminatedInDivisionSeries);
-                System.out.printf("Eliminated in Wild Card Series 在外卡賽淘汰 : $%.2f 美元%n", worstRevenue);
-                System.out.printf("Eliminated in Championship Series 在聯盟冠軍賽淘汰 : $%.2f 美元%n", eliminatedInChampionshipSeries);
-                System.out.printf("Reaches World Series Game 7 打到世界大賽第7場 : $%.2f 美元 %n%n", bestRevenue);
-            } catch (IllegalArgumentException e) {
-                System.err.println("計算 " + team.name + " 的收益時發生錯誤: " + e.getMessage());
+            long start = System.nanoTime();
+            long playoffHome = money.gate(team.capacity, team.playoffFillRate, ticketPricePlayoff, revenueShareHome);
+            long playoffAway = money.gate(team.capacity, team.playoffFillRate, ticketPricePlayoff, revenueShareAway);
+            long worldSeriesHome = money.gate(team.capacity, team.worldSeriesFillRate, ticketPriceWorldSeries,
+                    revenueShareHome);
+            long worldSeriesAway = money.gate(team.capacity, team.worldSeriesFillRate, ticketPriceWorldSeries,
+                    revenueShareAway);
+            for (int s = 0; s < m; s++) {
+                long units = Money.addTimes(0, playoffHome, scenarios.playoffHome(s));
+                units = Money.addTimes(units, playoffAway, scenarios.playoffAway(s));
+                units = Money.addTimes(units, worldSeriesHome, scenarios.worldSeriesHome(s));
+                revenues[s] = Money.addTimes(units, worldSeriesAway, scenarios.worldSeriesAway(s));
+            }
+            RevenueMetrics.TEAM_COMPUTE.recordSince(start);
+            RevenueMetrics.SCENARIO_EVALUATIONS.add(m);
+            report.team(team.name);
+            for (int s = 0; s < m; s++) {
+                report.amount(scenarios.name(s), money.dollars(revenues[s]));
+            }
+            RevenueDistribution distribution = simulated.get(team.name);
+            if (distribution != null) {
+                report.amount("Simulated P5 模擬收益 P5", distribution.quantile(0.05));
+                report.amount("Simulated P50 模擬收益中位數", distribution.quantile(0.50));
+                report.amount("Simulated P95 模擬收益 P95", distribution.quantile(0.95));
+                report.amount("Simulated Expected 模擬期望收益", distribution.mean());
             }
+            report.line("");
         }
     }
 
@@ -149,27 +348,28 @@ class PostseasonRevenue3 {
     public static void main(String[] args) {
         try {
             // 讀取配置文件
-            Properties props = new Properties();
-            try (InputStream input = PostseasonRevenue3.class.getClassLoader().getResourceAsStream("config.properties")) {
-                if (input == null) {
-                    throw new IOException("無法找到 config.properties 文件");
-                }
-                props.load(input);
-            }
+            Properties props = loadProperties();
+            RevenueMetrics.dumpOnExit(props);
 
             // 創建 PostseasonRevenue3 物件
             PostseasonRevenue3 revenue = new PostseasonRevenue3(props);
 
             // 從 JSON 文件讀取球隊數據
-            String jsonPath = props.getProperty("teams.json.path", "src/main/resources/teams.json");
-            List<Team3> teams = readTeamsFromJson(jsonPath);
+            TeamTable table = loadConfiguredTeams(props);
+            List<Team3> teams = table.toTeams();
+
+            // 計算並打印所有球隊的收益（格式與輸出位置由 report.format / report.output 決定）
+            try (RevenueReportWriter report = RevenueReportWriter.open(props)) {
+                revenue.calculateAndPrintRevenues(teams, report);
+            }
 
-            // 計算並打印所有球隊的收益
-            revenue.calculateAndPrintRevenues(teams);
+            // 設定 store.output 時另外寫出主客場收益矩陣，下游工具直接對映讀取，不必解析報表文字
+            String store = props.getProperty("store.output", "").trim();
+            if (!store.isEmpty()) {
+                RevenueStore.write(Path.of(store), revenue, table, revenue.reportScenarios);
+            }
         } catch (IOException e) {
             System.err.println("讀取文件時發生錯誤: " + e.getMessage());
-        } catch (ParseException e) {
-            System.err.println("解析 JSON 文件時發生錯誤: " + e.getMessage());
         } catch (IllegalArgumentException e) {
             System.err.println("配置文件中的參數無效: " + e.getMessage());
         } catch (Exception e) {
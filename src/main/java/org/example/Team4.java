@@ -1,5 +1,10 @@
 package org.example.Demo;
 
+import org.example.Money;
+import org.example.RevenueReportWriter;
+import org.example.RevenueTable;
+import org.example.SeriesFormat;
+import org.example.TeamTable;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -39,6 +44,9 @@ class PostseasonRevenue4 {
     private final double ticketPriceWorldSeries;
     private final double revenueShareHome;
     private final double revenueShareAway;
+    private final SeriesFormat[] rounds;
+    private final Money money;   // 收益查詢表的定點金額單位（money.decimals）
+    private static final String[] ROUND_NAMES = {"外卡賽", "分區系列賽", "聯盟冠軍賽", "世界大賽"};
 
     public PostseasonRevenue4(Properties props) throws IllegalArgumentException {
         this.ticketPricePlayoff = getDoubleProperty(props, "ticket.price.playoff", 450);
@@ -49,6 +57,8 @@ class PostseasonRevenue4 {
         if (Math.abs(this.revenueShareHome + this.revenueShareAway - 1.0) > 0.000001) {
             throw new IllegalArgumentException("收益分配比例總和必須為1");
         }
+        this.rounds = SeriesFormat.fromProperties(props);
+        this.money = Money.fromProperties(props);
     }
 
     private double getDoubleProperty(Properties props, String key, double defaultValue) throws IllegalArgumentException {
@@ -85,63 +95,52 @@ class PostseasonRevenue4 {
         return teams;
     }
 
-    private double calculateHomeRevenue(Team4 team, int games, boolean isWorldSeries) {
+    double calculateHomeRevenue(Team4 team, int games, boolean isWorldSeries) {
         double ticketPrice = isWorldSeries ? ticketPriceWorldSeries : ticketPricePlayoff;
         double fillRate = isWorldSeries ? team.worldSeriesFillRate : team.playoffFillRate;
         return team.capacity * fillRate * ticketPrice * revenueShareHome * games;
     }
 
-    private double calculateAwayRevenue(Team4 team, int games, boolean isWorldSeries) {
+    double calculateAwayRevenue(Team4 team, int games, boolean isWorldSeries) {
         double ticketPrice = isWorldSeries ? ticketPriceWorldSeries : ticketPricePlayoff;
         double fillRate = isWorldSeries ? team.worldSeriesFillRate : team.playoffFillRate;
         return team.capacity * fillRate * ticketPrice * revenueShareAway * games;
     }
-    public void calculateAndPrintRevenues(List<Team4> teams) {
+
+    // 把球隊轉為欄位表並建立收益查詢表（每次呼叫建立一次），資料無效的球隊略過
+    RevenueTable buildRevenueTable(List<Team4> teams) {
+        TeamTable.Builder builder = new TeamTable.Builder(teams.size());
         for (Team4 team : teams) {
             try {
-                // 外卡賽收益計算
-                double homeWildCardWin = calculateHomeRevenue(team, 2, false);
-                double awayWildCardWin = calculateAwayRevenue(team, 2, false);
-                double homeWildCardLoss = calculateHomeRevenue(team, 1, false);
-                double awayWildCardLoss = calculateAwayRevenue(team, 1, false);
-
-                // 分區系列賽收益計算
-                double homeDivisionWin = homeWildCardWin + calculateHomeRevenue(team, 3, false);
-                double awayDivisionWin = awayWildCardWin + calculateAwayRevenue(team, 2, false);
-                double homeDivisionLoss = homeWildCardWin + calculateHomeRevenue(team, 2, false);
-                double awayDivisionLoss = awayWildCardWin + calculateAwayRevenue(team, 1, false);
-
-                // 聯盟冠軍賽收益計算
-                double homeChampionshipWin = homeDivisionWin + calculateHomeRevenue(team, 4, false);
-                double awayChampionshipWin = awayDivisionWin + calculateAwayRevenue(team, 3, false);
-                double homeChampionshipLoss = homeDivisionWin + calculateHomeRevenue(team, 3, false);
-                double awayChampionshipLoss = awayDivisionWin + calculateAwayRevenue(team, 2, false);
-
-                // 世界大賽收益計算
-                double homeWorldSeriesWin = homeChampionshipWin + calculateHomeRevenue(team, 4, true);
-                double awayWorldSeriesWin = awayChampionshipWin + calculateAwayRevenue(team, 3, true);
-                double homeWorldSeriesLoss = homeChampionshipWin + calculateHomeRevenue(team, 3, true);
-                double awayWorldSeriesLoss = awayChampionshipWin + calculateAwayRevenue(team, 2, true);
-
-                // 打印結果
-                System.out.printf("%nTeam 隊伍: %s%n", team.name);
-                System.out.println("主場累積收益:");
-                System.out.printf("  外卡賽 (贏): $%.2f, (輸): $%.2f%n", homeWildCardWin, homeWildCardLoss);
-                System.out.printf("  分區系列賽 (贏): $%.2f, (輸): $%.2f%n", homeDivisionWin, homeDivisionLoss);
-                System.out.printf("  聯盟冠軍賽 (贏): $%.2f, (輸): $%.2f%n", homeChampionshipWin, homeChampionshipLoss);
-                System.out.printf("  世界大賽 (贏): $%.2f, (輸): $%.2f%n", homeWorldSeriesWin, homeWorldSeriesLoss);
-
-                System.out.println("客場累積收益:");
-                System.out.printf("  外卡賽 (贏): $%.2f, (輸): $%.2f%n", awayWildCardWin, awayWildCardLoss);
-                System.out.printf("  分區系列賽 (贏): $%.2f, (輸): $%.2f%n", awayDivisionWin, awayDivisionLoss);
-                System.out.printf("  聯盟冠軍賽 (贏): $%.2f, (輸): $%.2f%n", awayChampionshipWin, awayChampionshipLoss);
-                System.out.printf("  世界大賽 (贏): $%.2f, (輸): $%.2f%n", awayWorldSeriesWin, awayWorldSeriesLoss);
-
+                builder.add(team.name, team.stadium, team.capacity, team.playoffFillRate, team.worldSeriesFillRate);
             } catch (IllegalArgumentException e) {
                 System.err.println("計算 " + team.name + " 的收益時發生錯誤: " + e.getMessage());
             }
         }
+        return RevenueTable.build(builder.build(), rounds, ticketPricePlayoff, ticketPriceWorldSeries,
+                revenueShareHome, revenueShareAway, money);
     }
+
+    public void calculateAndPrintRevenues(List<Team4> teams, RevenueReportWriter report) {
+        RevenueTable table = buildRevenueTable(teams);
+        for (int t = 0; t < table.teams().size(); t++) {
+            // 每一輪：贏 = 以低種子打滿場次，輸 = 以低種子被橫掃；前面各輪的收益已累積在查詢表中
+            report.team(table.teams().name(t));
+            report.section("主場累積收益");
+            for (int r = 0; r < rounds.length; r++) {
+                report.pair(ROUND_NAMES[r], "贏", table.seriesHome(t, r, rounds[r].maxGames(), false),
+                        "輸", table.seriesHome(t, r, rounds[r].winsNeeded(), false));
+            }
+            report.line("");
+            report.section("客場累積收益");
+            for (int r = 0; r < rounds.length; r++) {
+                report.pair(ROUND_NAMES[r], "贏", table.seriesAway(t, r, rounds[r].maxGames(), false),
+                        "輸", table.seriesAway(t, r, rounds[r].winsNeeded(), false));
+            }
+            report.line("");
+        }
+    }
+
     public static void main(String[] args) {
         try {
             Properties props = new Properties();
@@ -157,7 +156,9 @@ class PostseasonRevenue4 {
             String jsonPath = props.getProperty("teams.json.path", "src/main/resources/teams.json");
             List<Team4> teams = readTeamsFromJson(jsonPath);
 
-            revenue.calculateAndPrintRevenues(teams);
+            try (RevenueReportWriter report = RevenueReportWriter.open(props)) {
+                revenue.calculateAndPrintRevenues(teams, report);
+            }
         } catch (IOException e) {
             System.err.println("讀取文件時發生錯誤: " + e.getMessage());
         } catch (ParseException e) {
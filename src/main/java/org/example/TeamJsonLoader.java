@@ -0,0 +1,229 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.InputCoercionException;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// 以 Jackson 串流解析球隊資料，直接寫入 TeamTable 欄位；支援 teams.json 陣列與逐行 JSON（NDJSON）
+public final class TeamJsonLoader {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private TeamJsonLoader() {
+    }
+
+    // 單筆資料的錯誤：第幾筆（從 1 起算）與原因
+    public static final class RecordError {
+        public final long record;
+        public final String message;
+
+        RecordError(long record, String message) {
+            this.record = record;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "第 " + record + " 筆: " + message;
+        }
+    }
+
+    // 載入結果：成功的球隊與被略過的資料
+    public static final class Result {
+        public final TeamTable teams;
+        public final List<RecordError> errors;
+        public final long records;
+
+        Result(TeamTable teams, List<RecordError> errors, long records) {
+            this.teams = teams;
+            this.errors = Collections.unmodifiableList(errors);
+            this.records = records;
+        }
+    }
+
+    public static Result load(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            return load(input);
+        }
+    }
+
+    // 依第一個非空白字元判斷格式：'[' 為 JSON 陣列，其他為逐行 JSON
+    public static Result load(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, 1 << 16);
+        buffered.mark(1 << 16);
+        int first;
+        do {
+            first = buffered.read();
+        } while (first == ' ' || first == '\t' || first == '\r' || first == '\n' || first == 0xEF || first == 0xBB || first == 0xBF);
+        buffered.reset();
+        return first == '[' ? loadArray(buffered) : loadLines(buffered);
+    }
+
+    // JSON 陣列：以單一 token 串流逐筆讀取，語法錯誤無法續讀時保留已載入的資料
+    private static Result loadArray(InputStream input) throws IOException {
+        TeamTable.Builder builder = new TeamTable.Builder();
+        List<RecordError> errors = new ArrayList<>();
+        long record = 0;
+        try (JsonParser parser = FACTORY.createParser(input)) {
+            parser.nextToken(); // START_ARRAY
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                record++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    errors.add(new RecordError(record, "不是 JSON 物件"));
+                    continue;
+                }
+                String error = readTeam(parser, builder);
+                if (error != null) {
+                    errors.add(new RecordError(record, error));
+                }
+            }
+        } catch (StreamReadException e) {
+            errors.add(new RecordError(record + 1, "JSON 語法錯誤，停止讀取: " + e.getOriginalMessage()));
+        }
+        return new Result(builder.build(), errors, record);
+    }
+
+    // 逐行 JSON：每行獨立解析，單行語法錯誤只略過該行
+    private static Result loadLines(InputStream input) throws IOException {
+        TeamTable.Builder builder = new TeamTable.Builder();
+        List<RecordError> errors = new ArrayList<>();
+        long record = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        String line;
+        boolean first = true;
+        while ((line = reader.readLine()) != null) {
+            // 格式判斷時略過的 UTF-8 BOM 仍在串流中，解碼後成為第一行開頭的 \uFEFF
+            if (first && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            first = false;
+            if (line.isBlank()) {
+                continue;
+            }
+            record++;
+            try (JsonParser parser = FACTORY.createParser(line)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    errors.add(new RecordError(record, "不是 JSON 物件"));
+                    continue;
+                }
+                String error = readTeam(parser, builder);
+                if (error == null && parser.nextToken() != null) {
+                    error = "一行只能有一筆資料";
+                }
+                if (error != null) {
+                    errors.add(new RecordError(record, error));
+                }
+            } catch (StreamReadException e) {
+                errors.add(new RecordError(record, "JSON 語法錯誤: " + e.getOriginalMessage()));
+            }
+        }
+        return new Result(builder.build(), errors, record);
+    }
+
+    // 讀取一個球隊物件（parser 位於 START_OBJECT），成功時加入 builder 並回傳 null，否則回傳錯誤原因
+    private static String readTeam(JsonParser parser, TeamTable.Builder builder) throws IOException {
+        String name = null;
+        String stadium = null;
+        long capacity = Long.MIN_VALUE;
+        double playoffFillRate = Double.NaN;
+        double worldSeriesFillRate = Double.NaN;
+        String error = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "name":
+                    name = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    break;
+                case "stadium":
+                    stadium = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    break;
+                case "capacity":
+                    if (value == JsonToken.VALUE_NUMBER_INT) {
+                        try {
+                            capacity = parser.getLongValue();
+                        } catch (InputCoercionException e) {
+                            // 超出 long 範圍的整數：只讓這筆資料失敗，不中止整個檔案
+                            if (error == null) {
+                                error = "capacity 超出範圍";
+                            }
+                        }
+                    } else if (error == null) {
+                        error = "capacity 必須為整數";
+                    }
+                    break;
+                case "playoffFillRate":
+                    if (value.isNumeric()) {
+                        playoffFillRate = parser.getDoubleValue();
+                    } else if (error == null) {
+                        error = "playoffFillRate 必須為數值";
+                    }
+                    break;
+                case "worldSeriesFillRate":
+                    if (value.isNumeric()) {
+                        worldSeriesFillRate = parser.getDoubleValue();
+                    } else if (error == null) {
+                        error = "worldSeriesFillRate 必須為數值";
+                    }
+                    break;
+                default:
+                    break;
+            }
+            parser.skipChildren();
+        }
+
+        if (error != null) {
+            return error;
+        }
+        if (capacity == Long.MIN_VALUE) {
+            return "缺少 capacity 欄位";
+        }
+        // 先檢查再轉為 int，避免 -4294967295 之類的值被截斷成合法容量
+        if (capacity < 1 || capacity > Integer.MAX_VALUE) {
+            return "capacity 超出範圍: " + capacity;
+        }
+        if (Double.isNaN(playoffFillRate) || Double.isNaN(worldSeriesFillRate)) {
+            return "缺少上座率欄位";
+        }
+        try {
+            builder.add(name, stadium, (int) capacity, playoffFillRate, worldSeriesFillRate);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    // 主方法：串流載入指定檔案（預設 teams.json.path）並列出略過的資料
+    public static void main(String[] args) {
+        try {
+            String path = args.length > 0 ? args[0]
+                    : PostseasonRevenue3.loadProperties().getProperty("teams.json.path", "src/main/resources/teams.json");
+            long start = System.nanoTime();
+            Result result = load(Path.of(path));
+            long elapsed = System.nanoTime() - start;
+            for (RecordError error : result.errors) {
+                System.err.println("略過資料 " + error);
+            }
+            System.out.printf("讀取 %d 筆，載入 %d 支球隊，略過 %d 筆，耗時 %.3f 毫秒%n",
+                    result.records, result.teams.size(), result.errors.size(), elapsed / 1e6);
+        } catch (IOException e) {
+            System.err.println("讀取文件時發生錯誤: " + e.getMessage());
+        }
+    }
+}
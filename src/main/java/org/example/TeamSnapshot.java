@@ -0,0 +1,214 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+// 球隊二進位快照：固定寬度欄位 + 字串池，讀取時以 FileChannel.map 對映，欄位與字串池直接引用對映區，不複製到 Java heap
+//
+// 檔案配置（little-endian）：
+//   0  magic "MLBT"        4  版本           8  球隊數 n       12 字串數 m
+//   16 字串池位元組數      20 保留           24 CRC32（header 之後的所有內容）
+//   32 來源檔修改時間（毫秒，無來源時為 -1）  40 來源檔位元組數
+//   48 playoffFillRate double[n]、worldSeriesFillRate double[n]、capacityAsDouble double[n]、
+//      capacity int[n]、nameId int[n]、stadiumId int[n]、字串起點 int[m + 1]、字串池 UTF-8 bytes
+public final class TeamSnapshot {
+    static final int MAGIC = 0x4D4C4254; // "MLBT"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 48;
+    static final int ROW_BYTES = 36;
+
+    private TeamSnapshot() {
+    }
+
+    // 判斷檔案是否為快照格式（檢查 magic）
+    public static boolean isSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            return channel.read(head, 0) == 4 && head.getInt(0) == MAGIC;
+        }
+    }
+
+    // 判斷快照是否仍對應來源檔：版本相同，且 header 記錄的修改時間與位元組數都與來源檔一致
+    public static boolean isCurrent(Path snapshot, Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(head, 0) != HEADER_BYTES || head.getInt(0) != MAGIC || head.getInt(4) != VERSION) {
+                return false;
+            }
+            return head.getLong(32) == Files.getLastModifiedTime(source).toMillis()
+                    && head.getLong(40) == Files.size(source);
+        }
+    }
+
+    // 將欄位表寫成快照檔（不記錄來源檔）
+    public static void write(TeamTable teams, Path path) throws IOException {
+        write(teams, path, -1, -1);
+    }
+
+    // 將欄位表寫成快照檔，並記錄來源檔的修改時間與位元組數供 isCurrent 比對
+    static void write(TeamTable teams, Path path, long sourceMillis, long sourceSize) throws IOException {
+        int n = teams.size;
+        int strings = teams.names.size();
+        byte[][] encoded = new byte[strings][];
+        long poolBytes = 0;
+        for (int i = 0; i < strings; i++) {
+            encoded[i] = teams.names.get(i).getBytes(StandardCharsets.UTF_8);
+            poolBytes += encoded[i].length;
+        }
+        long total = HEADER_BYTES + (long) n * ROW_BYTES + ((long) strings + 1) * 4 + poolBytes;
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("快照檔超過 2 GB 上限: " + total + " 位元組");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(strings).putInt((int) poolBytes).putInt(0).putLong(0)
+                .putLong(sourceMillis).putLong(sourceSize);
+        buffer.put(column(teams.playoffFillRate, n * 8));
+        buffer.put(column(teams.worldSeriesFillRate, n * 8));
+        buffer.put(column(teams.capacityAsDouble, n * 8));
+        buffer.put(column(teams.capacity, n * 4));
+        buffer.put(column(teams.nameId, n * 4));
+        buffer.put(column(teams.stadiumId, n * 4));
+        int offset = 0;
+        for (int i = 0; i < strings; i++) {
+            buffer.putInt(offset);
+            offset += encoded[i].length;
+        }
+        buffer.putInt(offset);
+        for (byte[] bytes : encoded) {
+            buffer.put(bytes);
+        }
+        buffer.putLong(24, checksum(buffer.duplicate().position(HEADER_BYTES).limit(buffer.capacity())));
+        buffer.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // 欄位的前 bytes 個位元組（不改動欄位本身的 position）
+    private static ByteBuffer column(ByteBuffer column, int bytes) {
+        return column.duplicate().clear().limit(bytes);
+    }
+
+    // 以記憶體對映讀取快照，驗證 magic、版本、長度、CRC32 與每一列的值後，欄位直接切片自對映區
+    public static TeamTable read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("快照檔過短: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("不是球隊快照檔: " + path);
+            }
+            if (mapped.getInt(4) != VERSION) {
+                throw new IOException("不支援的快照版本 " + mapped.getInt(4) + ": " + path);
+            }
+            int n = mapped.getInt(8);
+            int strings = mapped.getInt(12);
+            int poolBytes = mapped.getInt(16);
+            long expected = HEADER_BYTES + (long) n * ROW_BYTES + ((long) strings + 1) * 4 + poolBytes;
+            if (n < 0 || strings < 0 || poolBytes < 0 || expected != length) {
+                throw new IOException("快照檔長度不符: " + path);
+            }
+            if (checksum(mapped.duplicate().position(HEADER_BYTES)) != mapped.getLong(24)) {
+                throw new IOException("快照檔校驗碼錯誤: " + path);
+            }
+
+            int position = HEADER_BYTES;
+            ByteBuffer playoffFillRate = slice(mapped, position, n * 8);
+            position += n * 8;
+            ByteBuffer worldSeriesFillRate = slice(mapped, position, n * 8);
+            position += n * 8;
+            ByteBuffer capacityAsDouble = slice(mapped, position, n * 8);
+            position += n * 8;
+            ByteBuffer capacity = slice(mapped, position, n * 4);
+            position += n * 4;
+            ByteBuffer nameId = slice(mapped, position, n * 4);
+            position += n * 4;
+            ByteBuffer stadiumId = slice(mapped, position, n * 4);
+            position += n * 4;
+            ByteBuffer offsets = slice(mapped, position, (strings + 1) * 4);
+            position += (strings + 1) * 4;
+            ByteBuffer pool = slice(mapped, position, poolBytes);
+
+            if (offsets.getInt(0) != 0 || offsets.getInt(strings * 4) != poolBytes) {
+                throw new IOException("快照檔字串池損毀: " + path);
+            }
+            for (int i = 0; i < strings; i++) {
+                if (offsets.getInt(i * 4) > offsets.getInt(i * 4 + 4)) {
+                    throw new IOException("快照檔字串池損毀: " + path);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                int name = nameId.getInt(i * 4);
+                int stadium = stadiumId.getInt(i * 4);
+                if (name < 0 || name >= strings || stadium < 0 || stadium >= strings) {
+                    throw new IOException("快照檔名稱編號損毀: " + path);
+                }
+                int seats = capacity.getInt(i * 4);
+                double playoff = playoffFillRate.getDouble(i * 8);
+                double worldSeries = worldSeriesFillRate.getDouble(i * 8);
+                // 與 TeamTable.Builder 相同的規則；NaN 不滿足任何比較，因此也會被拒絕
+                if (seats <= 0 || capacityAsDouble.getDouble(i * 8) != seats
+                        || !(playoff >= 0 && playoff <= 1) || !(worldSeries >= 0 && worldSeries <= 1)) {
+                    throw new IOException("快照檔第 " + i + " 列資料無效: " + path);
+                }
+            }
+            NameDictionary names = new NameDictionary(offsets, pool, strings);
+            return new TeamTable(n, capacity, capacityAsDouble, playoffFillRate, worldSeriesFillRate,
+                    nameId, stadiumId, names);
+        }
+    }
+
+    private static ByteBuffer slice(MappedByteBuffer mapped, int position, int length) {
+        return mapped.slice(position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long checksum(ByteBuffer content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    // 主方法：把 teams.json 轉為快照，參數依序為來源 JSON 與輸出路徑（預設 teams.json.path 與 teams.snapshot.path）
+    public static void main(String[] args) {
+        try {
+            Properties props = PostseasonRevenue3.loadProperties();
+            String source = args.length > 0 ? args[0]
+                    : props.getProperty("teams.json.path", "src/main/resources/teams.json");
+            Path target = Path.of(args.length > 1 ? args[1]
+                    : props.getProperty("teams.snapshot.path", source.replaceFirst("\\.json$", "") + ".bin"));
+            // 先記下來源檔的修改時間與大小，載入期間來源檔若被改寫，快照會被視為過期
+            Path sourcePath = Path.of(source);
+            long sourceMillis = Files.getLastModifiedTime(sourcePath).toMillis();
+            long sourceSize = Files.size(sourcePath);
+            TeamTable teams = PostseasonRevenue3.loadTeams(source);
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            write(teams, target, sourceMillis, sourceSize);
+            System.out.printf("已將 %d 支球隊寫入快照 %s（%d 位元組）%n", teams.size(), target, Files.size(target));
+        } catch (IOException e) {
+            System.err.println("寫入快照時發生錯誤: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 以欄位（structure-of-arrays）儲存球隊資料，名稱另存於字典，供批次計算連續讀取
+//
+// 每個欄位是 little-endian 的 ByteBuffer，只以絕對位置讀取（多執行緒共用安全）：
+// 由 Builder 建立時是 heap 緩衝區，由 TeamSnapshot 載入時直接是快照檔對映區的切片，不複製到 Java heap。
+public final class TeamTable {
+    final int size;
+    final ByteBuffer capacity;              // int[n]：球場容量
+    final ByteBuffer capacityAsDouble;      // double[n]：球場容量（供向量運算直接載入）
+    final ByteBuffer playoffFillRate;       // double[n]：季後賽上座率
+    final ByteBuffer worldSeriesFillRate;   // double[n]：世界大賽上座率
+    final ByteBuffer nameId;                // int[n]：球隊名稱在字典中的編號
+    final ByteBuffer stadiumId;             // int[n]：球場名稱在字典中的編號
+    final NameDictionary names;             // 名稱字典
+
+    private TeamTable(Builder builder) {
+        this(builder.size, ints(builder.capacity, builder.size), doubles(builder.capacity, builder.size),
+                doubles(builder.playoffFillRate, builder.size), doubles(builder.worldSeriesFillRate, builder.size),
+                ints(builder.nameId, builder.size), ints(builder.stadiumId, builder.size), builder.names);
+    }
+
+    // 直接以欄位緩衝區建立（不複製，呼叫端不得再修改）
+    TeamTable(int size, ByteBuffer capacity, ByteBuffer capacityAsDouble, ByteBuffer playoffFillRate,
+              ByteBuffer worldSeriesFillRate, ByteBuffer nameId, ByteBuffer stadiumId, NameDictionary names) {
+        this.size = size;
+        this.capacity = column(capacity, size, 4);
+        this.capacityAsDouble = column(capacityAsDouble, size, 8);
+        this.playoffFillRate = column(playoffFillRate, size, 8);
+        this.worldSeriesFillRate = column(worldSeriesFillRate, size, 8);
+        this.nameId = column(nameId, size, 4);
+        this.stadiumId = column(stadiumId, size, 4);
+        this.names = names;
+    }
+
+    private static ByteBuffer column(ByteBuffer buffer, int size, int width) {
+        if (buffer.order() != ByteOrder.LITTLE_ENDIAN || buffer.capacity() < (long) size * width) {
+            throw new IllegalArgumentException("欄位緩衝區長度或位元組順序不符");
+        }
+        return buffer;
+    }
+
+    private static ByteBuffer ints(int[] values, int size) {
+        ByteBuffer buffer = ByteBuffer.allocate(size * 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(values, 0, size);
+        return buffer;
+    }
+
+    private static ByteBuffer doubles(double[] values, int size) {
+        ByteBuffer buffer = ByteBuffer.allocate(size * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asDoubleBuffer().put(values, 0, size);
+        return buffer;
+    }
+
+    private static ByteBuffer doubles(int[] values, int size) {
+        ByteBuffer buffer = ByteBuffer.allocate(size * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(i * 8, values[i]);
+        }
+        return buffer;
+    }
+
+    // 由既有的 Team3 清單建立
+    static TeamTable fromTeams(List<Team3> teams) {
+        Builder builder = new Builder(teams.size());
+        for (Team3 team : teams) {
+            builder.add(team.name, team.stadium, team.capacity, team.playoffFillRate, team.worldSeriesFillRate);
+        }
+        return builder.build();
+    }
+
+    // 轉回 Team3 清單，供原有計算流程使用
+    List<Team3> toTeams() {
+        List<Team3> teams = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            teams.add(new Team3(name(i), stadium(i), capacity(i), playoffFillRate(i), worldSeriesFillRate(i)));
+        }
+        return teams;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int row) {
+        return names.get(nameId(row));
+    }
+
+    public String stadium(int row) {
+        return names.get(stadiumId(row));
+    }
+
+    public int capacity(int row) {
+        return capacity.getInt(row << 2);
+    }
+
+    public double capacityAsDouble(int row) {
+        return capacityAsDouble.getDouble(row << 3);
+    }
+
+    public double playoffFillRate(int row) {
+        return playoffFillRate.getDouble(row << 3);
+    }
+
+    public double worldSeriesFillRate(int row) {
+        return worldSeriesFillRate.getDouble(row << 3);
+    }
+
+    int nameId(int row) {
+        return nameId.getInt(row << 2);
+    }
+
+    int stadiumId(int row) {
+        return stadiumId.getInt(row << 2);
+    }
+
+    // 依球隊名稱查詢列號，找不到時回傳 -1
+    public int find(String name) {
+        int id = names.find(name);
+        if (id < 0) {
+            return -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (nameId(i) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // 逐列累加欄位的建構器，容量不足時倍增
+    public static final class Builder {
+        private int size;
+        private int[] capacity;
+        private double[] playoffFillRate;
+        private double[] worldSeriesFillRate;
+        private int[] nameId;
+        private int[] stadiumId;
+        private final NameDictionary names = new NameDictionary();
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int expectedSize) {
+            int initial = Math.max(1, expectedSize);
+            capacity = new int[initial];
+            playoffFillRate = new double[initial];
+            worldSeriesFillRate = new double[initial];
+            nameId = new int[initial];
+            stadiumId = new int[initial];
+        }
+
+        // 新增一列，檢查規則與 Team3 建構函數的斷言相同
+        public Builder add(String name, String stadium, int capacity, double playoffFillRate, double worldSeriesFillRate) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("球隊名稱不能為空");
+            }
+            if (stadium == null || stadium.isEmpty()) {
+                throw new IllegalArgumentException("球場名稱不能為空");
+            }
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("球場容量必須大於0");
+            }
+            if (!(playoffFillRate >= 0 && playoffFillRate <= 1)) {
+                throw new IllegalArgumentException("季後賽上座率必須在0到1之間");
+            }
+            if (!(worldSeriesFillRate >= 0 && worldSeriesFillRate <= 1)) {
+                throw new IllegalArgumentException("世界大賽上座率必須在0到1之間");
+            }
+            if (size == this.capacity.length) {
+                grow();
+            }
+            this.capacity[size] = capacity;
+            this.playoffFillRate[size] = playoffFillRate;
+            this.worldSeriesFillRate[size] = worldSeriesFillRate;
+            this.nameId[size] = names.intern(name);
+            this.stadiumId[size] = names.intern(stadium);
+            size++;
+            return this;
+        }
+
+        private void grow() {
+            int newLength = capacity.length * 2;
+            capacity = Arrays.copyOf(capacity, newLength);
+            playoffFillRate = Arrays.copyOf(playoffFillRate, newLength);
+            worldSeriesFillRate = Arrays.copyOf(worldSeriesFillRate, newLength);
+            nameId = Arrays.copyOf(nameId, newLength);
+            stadiumId = Arrays.copyOf(stadiumId, newLength);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public TeamTable build() {
+            return new TeamTable(this);
+        }
+    }
+}
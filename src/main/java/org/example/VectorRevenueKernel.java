@@ -0,0 +1,44 @@
+package org.example;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// 以 jdk.incubator.vector 實作的 SIMD 收益核心，需以 --add-modules jdk.incubator.vector 執行
+final class VectorRevenueKernel extends RevenueKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector(" + SPECIES.length() + " lanes)";
+    }
+
+    @Override
+    void computeUnchecked(TeamTable teams, double[] playoff, double[] worldSeries, double[] out) {
+        int n = teams.size;
+        ByteBuffer capacity = teams.capacityAsDouble;
+        ByteBuffer playoffFill = teams.playoffFillRate;
+        ByteBuffer worldSeriesFill = teams.worldSeriesFillRate;
+        int upper = SPECIES.loopBound(n);
+        for (int s = 0; s < playoff.length; s++) {
+            double p = playoff[s];
+            double w = worldSeries[s];
+            int base = s * n;
+            int t = 0;
+            for (; t < upper; t += SPECIES.length()) {
+                int offset = t << 3;
+                DoubleVector cap = DoubleVector.fromByteBuffer(SPECIES, capacity, offset, ByteOrder.LITTLE_ENDIAN);
+                DoubleVector pf = DoubleVector.fromByteBuffer(SPECIES, playoffFill, offset, ByteOrder.LITTLE_ENDIAN);
+                DoubleVector wf = DoubleVector.fromByteBuffer(SPECIES, worldSeriesFill, offset, ByteOrder.LITTLE_ENDIAN);
+                pf.mul(p).add(wf.mul(w)).mul(cap).intoArray(out, base + t);
+            }
+            for (; t < n; t++) {
+                int offset = t << 3;
+                out[base + t] = capacity.getDouble(offset)
+                        * (playoffFill.getDouble(offset) * p + worldSeriesFill.getDouble(offset) * w);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BracketModelTest {
+
+    // 每輪的對戰位置數：外卡賽 3～6 種子、分區系列賽、聯盟冠軍賽、世界大賽
+    private static final int[] SLOTS = {8, 8, 4, 2};
+
+    private static TeamTable league(int size) {
+        TeamTable.Builder builder = new TeamTable.Builder();
+        for (int t = 0; t < size; t++) {
+            builder.add("T" + t + " 球隊" + t, "球場" + t, 30000 + t * 1000, 0.9, 1.0);
+        }
+        return builder.build();
+    }
+
+    private static Properties props(int size) throws IOException {
+        Properties props = PostseasonRevenue3.loadProperties();
+        props.remove("bracket.al");
+        props.remove("bracket.nl");
+        for (int t = 0; t < size; t++) {
+            props.setProperty("team.rating.T" + t, String.valueOf(0.42 + t * 0.01));
+        }
+        return props;
+    }
+
+    private static void assertReachSums(BracketModel bracket, BracketModel.Result result, int[] slots) {
+        TeamTable teams = bracket.teams();
+        for (int r = 0; r < slots.length; r++) {
+            double sum = 0;
+            for (int t = 0; t < teams.size(); t++) {
+                assertTrue(result.reach(t, r) >= 0 && result.reach(t, r) <= 1 + 1e-12);
+                sum += result.reach(t, r);
+            }
+            assertEquals(1, sum / slots[r], 1e-9, "第 " + r + " 輪");
+        }
+        double champion = 0;
+        for (int t = 0; t < teams.size(); t++) {
+            champion += result.champion(t);
+        }
+        assertEquals(1, champion, 1e-9);
+    }
+
+    @Test
+    void reachProbabilitiesSumToOnePerRound() throws IOException {
+        BracketModel bracket = new BracketModel(props(14), league(14));
+        BracketModel.Result result = bracket.evaluate();
+        assertReachSums(bracket, result, SLOTS);
+        for (int t = 0; t < 14; t++) {
+            if (bracket.league(t) < 0) {
+                assertEquals(0, result.expected(t));
+            } else if (bracket.seed(t) <= 2) {
+                // 第 1、2 種子輪空，一定打進分區系列賽
+                assertEquals(0, result.reach(t, 0));
+                assertEquals(1, result.reach(t, 1), 1e-12);
+            }
+        }
+    }
+
+    // 從缺的種子讓對手直接晉級，打進外卡賽的位置少一個
+    @Test
+    void missingSeedAdvancesOpponent() throws IOException {
+        Properties props = props(12);
+        props.setProperty("bracket.al", "T11,T10,T9,T8,T7");
+        props.setProperty("bracket.nl", "T6,T5,T4,T3,T2,T1");
+        BracketModel bracket = new BracketModel(props, league(12));
+        BracketModel.Result result = bracket.evaluate();
+        assertReachSums(bracket, result, new int[]{7, 8, 4, 2});
+        assertEquals(1, result.reach(9, 1), 1e-12);   // 第 3 種子的對手（第 6 種子）從缺
+    }
+
+    // 同一個快照版本只建立一次模型
+    @Test
+    void snapshotCachesBracket() throws IOException {
+        RevenueWatcher.Snapshot snapshot = RevenueWatcher.rebuild(null, props(12), league(12));
+        RevenueWatcher.Bracket bracket = snapshot.bracket();
+        assertSame(bracket, snapshot.bracket());
+        assertReachSums(bracket.model(), bracket.result(), SLOTS);
+    }
+}
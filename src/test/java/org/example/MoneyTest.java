@@ -0,0 +1,67 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    // 四捨六入五成雙：剛好一半時捨入到偶數
+    @Test
+    void roundsHalfToEven() {
+        assertEquals(12, Money.CENTS.units(0.125));
+        assertEquals(38, Money.CENTS.units(0.375));
+        assertEquals(-12, Money.CENTS.units(-0.125));
+        assertEquals(2, new Money(0).units(2.5));
+        assertEquals(4, new Money(0).units(3.5));
+        assertEquals(3_825_000, Money.CENTS.gate(100, 0.9, 500, 0.85));
+    }
+
+    @Test
+    void rejectsAmountsBeyondExactDoubleRange() {
+        assertEquals(9_000_000_000_000_000L, new Money(0).units(9e15));
+        assertThrows(ArithmeticException.class, () -> Money.CENTS.units(1e14));
+        assertThrows(ArithmeticException.class, () -> Money.CENTS.units(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Money.CENTS.units(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void detectsLongOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.addTimes(1, Long.MAX_VALUE / 7, 7));
+        assertThrows(ArithmeticException.class, () -> Money.sum(new long[]{Long.MAX_VALUE, 1}));
+        assertEquals(Long.MAX_VALUE, Money.addTimes(1, (Long.MAX_VALUE - 1) / 2, 2));
+    }
+
+    // 整數加總與順序無關，同樣的金額以 double 累加則會產生誤差
+    @Test
+    void sumIsExact() {
+        long[] values = new long[1000];
+        double total = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Money.CENTS.units(0.1);
+            total += 0.1;
+        }
+        assertEquals(10_000, Money.sum(values));
+        assertEquals(100.0, Money.CENTS.dollars(Money.sum(values)));
+        assertNotEquals(100.0, total);
+    }
+
+    @Test
+    void readsDecimalsFromProperties() {
+        Properties props = new Properties();
+        assertSame(Money.CENTS, Money.fromProperties(props));
+        props.setProperty("money.decimals", "4");
+        Money money = Money.fromProperties(props);
+        assertEquals(4, money.decimals());
+        assertEquals(312, money.units(0.03125));
+        props.setProperty("money.decimals", "7");
+        assertThrows(IllegalArgumentException.class, () -> Money.fromProperties(props));
+    }
+}
@@ -0,0 +1,39 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RevenueBacktestTest {
+
+    @TempDir
+    Path dir;
+
+    private static String team(String name, int capacity) {
+        return "{\"name\":\"" + name + "\",\"stadium\":\"S\",\"capacity\":" + capacity
+                + ",\"playoffFillRate\":1.0,\"worldSeriesFillRate\":1.0}";
+    }
+
+    // 沒有任何有效球隊的檔案不算一季，不會拉低平均
+    @Test
+    void skipsFilesWithoutTeams() throws IOException {
+        Files.writeString(dir.resolve("2023.json"), "[" + team("LAD 道奇", 40000) + "]");
+        Files.writeString(dir.resolve("2024.ndjson"), team("LAD 道奇", 50000) + "\n");
+        Files.writeString(dir.resolve("feed.ndjson"), "{\"id\":\"WS-1\",\"round\":\"worldseries\"}\n");
+
+        RevenueBacktest backtest = new RevenueBacktest(PostseasonRevenue3.loadProperties());
+        List<RevenueBacktest.SeasonResult> results = backtest.run(dir);
+        assertEquals(2, results.size());
+        Map<String, double[][]> franchises = backtest.aggregate(results);
+        double[] seasons = franchises.get("LAD")[0];
+        assertEquals(2, seasons.length);
+        assertEquals(seasons[0] * 50000 / 40000, seasons[1], 1e-6);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class RevenueBatchTest {
+
+    @TempDir
+    Path dir;
+
+    private Properties batchProps() {
+        Properties props = new Properties();
+        props.setProperty("batch.output", dir.resolve("out").toString());
+        props.setProperty("batch.queue.capacity", "1");
+        for (String stage : RevenueBatch.STAGES) {
+            props.setProperty("batch.threads." + stage, "1");
+        }
+        return props;
+    }
+
+    private Path scenario(String name) throws IOException {
+        Path scenario = Files.createDirectories(dir.resolve("in").resolve(name));
+        try (OutputStream output = Files.newOutputStream(scenario.resolve("config.properties"))) {
+            PostseasonRevenue3.loadProperties().store(output, null);
+        }
+        Files.writeString(scenario.resolve("teams.json"), "[{\"name\":\"LAD 道奇\",\"stadium\":\"S\",\"capacity\":40000,"
+                + "\"playoffFillRate\":1.0,\"worldSeriesFillRate\":1.0}]");
+        return scenario;
+    }
+
+    // 非預期的 RuntimeException 只讓該情境失敗，其他情境照常完成，批次不會卡住
+    @Test
+    void unexpectedExceptionFailsOnlyThatScenario() throws IOException {
+        List<RevenueBatch.Job> jobs = new ArrayList<>();
+        Path broken = scenario("broken");
+        jobs.add(new RevenueBatch.Job("broken", null, broken.resolve("teams.json"))); // 讀設定檔時 NullPointerException
+        for (int i = 0; i < 3; i++) {
+            Path good = scenario("good" + i);
+            jobs.add(new RevenueBatch.Job("good" + i, good.resolve("config.properties"), good.resolve("teams.json")));
+        }
+
+        RevenueBatch batch = new RevenueBatch(batchProps());
+        List<RevenueBatch.Job> results = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> batch.run(jobs));
+        assertEquals(3, results.size());
+        assertEquals(1, batch.failures().size());
+        assertEquals("broken", batch.failures().get(0).scenario);
+        assertEquals("parse", batch.failures().get(0).stage);
+    }
+
+    // 設定檔中的無效數值在驗證階段被擋下
+    @Test
+    void invalidConfigIsReportedAndSkipped() throws IOException {
+        Path bad = scenario("bad");
+        Files.writeString(bad.resolve("config.properties"), "ticket.price.playoff=four milion\n");
+        Path good = scenario("good");
+        List<RevenueBatch.Job> jobs = RevenueBatch.discover(dir.resolve("in"));
+
+        RevenueBatch batch = new RevenueBatch(batchProps());
+        List<RevenueBatch.Job> results = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> batch.run(jobs));
+        assertEquals(1, results.size());
+        assertEquals("good", results.get(0).scenario);
+        assertEquals("validate", batch.failures().get(0).stage);
+        assertEquals(1, Files.list(dir.resolve("out")).count());
+        assertEquals(good, results.get(0).config.getParent());
+    }
+}
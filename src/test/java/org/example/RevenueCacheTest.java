@@ -0,0 +1,82 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevenueCacheTest {
+
+    @Test
+    void hitsAfterFirstLoad() {
+        RevenueCache<Long, String> cache = new RevenueCache<>(4);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("7", cache.get(7L, key -> {
+                loads.incrementAndGet();
+                return String.valueOf(key);
+            }));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.stats().hits);
+        assertEquals(1, cache.stats().misses);
+    }
+
+    // 容量已滿時，只被查詢一次的新項目不能擠掉常用的項目
+    @Test
+    void admitsByFrequency() {
+        RevenueCache<Long, String> cache = new RevenueCache<>(1);
+        for (int i = 0; i < 5; i++) {
+            cache.get(1L, String::valueOf);
+        }
+        cache.get(2L, String::valueOf);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.stats().rejections);
+        cache.get(1L, key -> "重新計算");
+        assertEquals("1", cache.get(1L, key -> "重新計算"));
+    }
+
+    // 並行計數以 compareAndSet 寫入不會遺失：容量很大、不會觸發減半時，每個計數都等於實際次數
+    @Test
+    void concurrentIncrementsAreNotLost() throws InterruptedException {
+        RevenueCache.FrequencySketch sketch = new RevenueCache.FrequencySketch(1 << 16);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            Thread thread = new Thread(() -> {
+                for (int hash = 0; hash < 4096; hash++) {
+                    for (int k = 0; k < 3; k++) {
+                        sketch.increment(hash);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int hash = 0; hash < 4096; hash++) {
+            assertEquals(12, sketch.frequency(hash), "hash " + hash);
+        }
+    }
+
+    // 累計次數達容量 10 倍時全部減半，計數上限為 15
+    @Test
+    void sketchHalvesAfterSampleSize() {
+        RevenueCache.FrequencySketch sketch = new RevenueCache.FrequencySketch(1);
+        for (int i = 0; i < 9; i++) {
+            sketch.increment(0);
+        }
+        assertEquals(9, sketch.frequency(0));
+        sketch.increment(0);
+        assertEquals(5, sketch.frequency(0));
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(1);
+        }
+        assertTrue(sketch.frequency(1) <= 15);
+    }
+}
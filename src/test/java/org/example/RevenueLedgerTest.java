@@ -0,0 +1,103 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevenueLedgerTest {
+
+    private static final String WILDCARD =
+            "{\"id\":\"ALWC-DET-HOU-1\",\"round\":\"wildcard\",\"home\":\"HOU\",\"away\":\"DET\",\"attendance\":41000,\"price\":95.5}";
+    private static final String WORLD_SERIES =
+            "{\"id\":\"WS-DET-HOU-1\",\"round\":\"worldseries\",\"home\":\"DET 老虎\",\"away\":\"HOU\",\"attendance\":40000,\"price\":250}";
+
+    @TempDir
+    Path dir;
+
+    private static TeamTable teams() {
+        return new TeamTable.Builder()
+                .add("HOU 太空人", "美粒果球場", 41000, 0.95, 1.0)
+                .add("DET 老虎", "聯合公園球場", 41083, 0.9, 1.0)
+                .build();
+    }
+
+    private Properties props() throws IOException {
+        Properties props = PostseasonRevenue3.loadProperties();
+        props.setProperty("ledger.log", dir.resolve("ledger.ndjson").toString());
+        props.setProperty("ledger.fsync", "false");
+        return props;
+    }
+
+    @Test
+    void replayRebuildsTotals() throws IOException {
+        Properties props = props();
+        try (RevenueLedger ledger = RevenueLedger.open(props, teams())) {
+            assertEquals("ok", ledger.ingest(WILDCARD));
+            assertEquals("ok", ledger.ingest(WORLD_SERIES));
+            assertEquals("duplicate", ledger.ingest(WILDCARD));
+            assertTrue(ledger.ingest("{\"id\":\"x\",\"round\":\"wildcard\",\"home\":\"HOU\",\"away\":\"HOU\","
+                    + "\"attendance\":1,\"price\":1}").startsWith("error"));
+        }
+
+        PostseasonRevenue3 revenue = new PostseasonRevenue3(props);
+        try (RevenueLedger ledger = RevenueLedger.open(props, teams())) {
+            assertEquals(2, ledger.games());
+            assertEquals(Money.add(revenue.gameUnits(41000, 95.5, true), revenue.gameUnits(40000, 250, false)),
+                    ledger.realizedUnits(0));
+            assertEquals(Money.add(revenue.gameUnits(41000, 95.5, false), revenue.gameUnits(40000, 250, true)),
+                    ledger.realizedUnits(1));
+            assertEquals(1, ledger.played(0, RevenueLedger.PLAYOFF_HOME));
+            assertEquals(1, ledger.played(0, RevenueLedger.WORLD_SERIES_HOME + 1));
+            assertEquals(1, ledger.played(1, RevenueLedger.PLAYOFF_HOME + 1));
+            assertEquals(1, ledger.played(1, RevenueLedger.WORLD_SERIES_HOME));
+            assertEquals("duplicate", ledger.ingest(WORLD_SERIES));
+        }
+    }
+
+    // 寫入途中中斷留下的半行被截斷，之後的記錄接在完整的最後一行之後
+    @Test
+    void truncatesPartialLastLine() throws IOException {
+        Properties props = props();
+        Path log = dir.resolve("ledger.ndjson");
+        String complete = WILDCARD + "\n";
+        Files.writeString(log, complete + WORLD_SERIES.substring(0, 40), StandardCharsets.UTF_8);
+
+        try (RevenueLedger ledger = RevenueLedger.open(props, teams())) {
+            assertEquals(1, ledger.games());
+            assertEquals(complete.getBytes(StandardCharsets.UTF_8).length, Files.size(log));
+            assertEquals("ok", ledger.ingest(WORLD_SERIES));
+        }
+        try (RevenueLedger ledger = RevenueLedger.open(props, teams())) {
+            assertEquals(2, ledger.games());
+        }
+    }
+
+    // 無法解析的記錄與重複的 id 在重播時略過，不影響其他記錄
+    @Test
+    void replaySkipsInvalidAndDuplicateLines() throws IOException {
+        Properties props = props();
+        Files.writeString(dir.resolve("ledger.ndjson"),
+                WILDCARD + "\n\n{not json}\n" + WILDCARD + "\r\n" + WORLD_SERIES + "\n", StandardCharsets.UTF_8);
+        try (RevenueLedger ledger = RevenueLedger.open(props, teams())) {
+            assertEquals(2, ledger.games());
+            assertEquals(1, ledger.played(0, RevenueLedger.PLAYOFF_HOME));
+        }
+    }
+
+    @Test
+    void rejectsSecondWriter() throws IOException {
+        Properties props = props();
+        try (RevenueLedger ledger = RevenueLedger.open(props, teams())) {
+            assertThrows(IOException.class, () -> RevenueLedger.open(props, teams()));
+        }
+    }
+}
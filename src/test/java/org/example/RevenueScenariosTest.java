@@ -0,0 +1,45 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevenueScenariosTest {
+
+    private static final SeriesFormat[] ROUNDS = SeriesFormat.fromProperties(new Properties());
+
+    @Test
+    void sumsLegsPerPhase() {
+        RevenueScenarios scenarios = new RevenueScenarios();
+        scenarios.addLegs("s", "wildcard:full, division:3/2, worldseries:5", ROUNDS);
+        // 外卡賽打滿 3 場（低種子 0 主 3 客）+ 分區 3 主 2 客；世界大賽 2-3-2 打 5 場，低種子 3 主 2 客
+        assertEquals(3, scenarios.playoffHome(0));
+        assertEquals(5, scenarios.playoffAway(0));
+        assertEquals(3, scenarios.worldSeriesHome(0));
+        assertEquals(2, scenarios.worldSeriesAway(0));
+    }
+
+    // 2-2-1：打滿 5 場時高種子 3 主 2 客、低種子 2 主 3 客，其他分配都不可能出現
+    @Test
+    void checksHomeAwayAgainstPattern() {
+        SeriesFormat division = ROUNDS[1];
+        assertTrue(division.allowsHomeAway(3, 2));
+        assertTrue(division.allowsHomeAway(2, 3));
+        assertTrue(division.allowsHomeAway(2, 1));
+        assertFalse(division.allowsHomeAway(4, 1));
+        assertFalse(division.allowsHomeAway(1, 1));
+        assertFalse(division.allowsHomeAway(3, 3));
+        assertFalse(division.allowsHomeAway(-1, 4));
+
+        RevenueScenarios scenarios = new RevenueScenarios();
+        assertThrows(IllegalArgumentException.class, () -> scenarios.addLegs("s", "division:4/1", ROUNDS));
+        assertThrows(IllegalArgumentException.class, () -> scenarios.addLegs("s", "wildcard:2/2", ROUNDS));
+        assertThrows(IllegalArgumentException.class, () -> scenarios.addLegs("s", "worldseries:0/9", ROUNDS));
+        assertEquals(0, scenarios.size());
+    }
+}
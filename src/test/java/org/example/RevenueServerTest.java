@@ -0,0 +1,96 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RevenueServerTest {
+
+    @TempDir
+    Path dir;
+
+    private RevenueServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new RevenueServer(new RevenueWatcher(dir.resolve("config.properties")),
+                InetAddress.getLoopbackAddress(), 0, 16, 64);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    private static TeamTable league(int capacity) {
+        TeamTable.Builder builder = new TeamTable.Builder();
+        for (int t = 0; t < 12; t++) {
+            builder.add("T" + t + " 球隊" + t, "球場" + t, t == 0 ? capacity : 30000 + t * 1000, 0.9, 1.0);
+        }
+        return builder.build();
+    }
+
+    private static Properties props() throws IOException {
+        Properties props = PostseasonRevenue3.loadProperties();
+        props.setProperty("bracket.al", "T0,T1,T2,T3,T4,T5");
+        props.setProperty("bracket.nl", "T6,T7,T8,T9,T10,T11");
+        for (int t = 0; t < 12; t++) {
+            props.setProperty("team.rating.T" + t, String.valueOf(0.45 + t * 0.01));
+        }
+        return props;
+    }
+
+    private double evaluate(RevenueWatcher.Snapshot snapshot, int t) {
+        return server.revenue(snapshot, t, 0x0003_0002_0004_0003L, new double[1][]);
+    }
+
+    // 與收益無關的設定改變時，新版本快照仍命中舊項目
+    @Test
+    void unrelatedConfigChangeStillHits() throws IOException {
+        Properties props = props();
+        RevenueWatcher.Snapshot first = RevenueWatcher.rebuild(null, props, league(40000));
+        double revenue = evaluate(first, 0);
+        RevenueWatcher.Bracket bracket = server.bracket(first);
+
+        Properties changed = props();
+        changed.setProperty("report.format", "csv");
+        changed.setProperty("server.port", "9090");
+        RevenueWatcher.Snapshot second = RevenueWatcher.rebuild(first, changed, league(40000));
+        assertEquals(0, server.reloaded(second));
+        assertEquals(revenue, evaluate(second, 0));
+        assertSame(bracket, server.bracket(second));
+        assertEquals(2, server.cacheStats().hits);
+        assertEquals(2, server.cacheStats().misses);
+    }
+
+    // 重新載入時只清除球隊列已改變的項目與整個聯盟的對戰樹
+    @Test
+    void reloadInvalidatesChangedRows() throws IOException {
+        Properties props = props();
+        RevenueWatcher.Snapshot first = RevenueWatcher.rebuild(null, props, league(40000));
+        double before = evaluate(first, 0);
+        evaluate(first, 1);
+        server.bracket(first);
+
+        RevenueWatcher.Snapshot second = RevenueWatcher.rebuild(first, props, league(50000));
+        assertEquals(2, server.reloaded(second));
+        assertEquals(before * 50000 / 40000, evaluate(second, 0), 1e-6);
+        evaluate(second, 1);
+        assertEquals(1, server.cacheStats().hits);
+
+        Properties price = props();
+        price.setProperty("ticket.price.playoff", "500");
+        RevenueWatcher.Snapshot third = RevenueWatcher.rebuild(second, price, league(50000));
+        assertEquals(2, server.reloaded(third));
+        assertEquals(0, server.cacheStats().size);
+    }
+}
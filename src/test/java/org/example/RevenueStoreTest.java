@@ -0,0 +1,129 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RevenueStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static TeamTable teams() {
+        return new TeamTable.Builder()
+                .add("洋基", "洋基球場", 46537, 0.95, 1.0)
+                .add("道奇", "道奇球場", 56000, 0.9, 0.98)
+                .add("Mets", "花旗球場", 41922, 0.8, 1.0)
+                .build();
+    }
+
+    private static RevenueScenarios scenarios() {
+        RevenueScenarios scenarios = new RevenueScenarios();
+        scenarios.add("最少場次", 3, 3, 2, 2);
+        scenarios.add("最多場次", 9, 9, 4, 3);
+        return scenarios;
+    }
+
+    // 建立只寫入前 rows 列的存放檔，第 t 列情境 s 的主場收益為 t * 10 + s、客場為其負值
+    private Path create(int rows) throws IOException {
+        Path path = dir.resolve("revenue.bin");
+        try (RevenueStore store = RevenueStore.create(path, teams(), scenarios())) {
+            for (int t = 0; t < rows; t++) {
+                store.append(new double[]{t * 10, t * 10 + 1}, new double[]{-t * 10, -t * 10 - 1});
+            }
+        }
+        return path;
+    }
+
+    private Path patch(Path path, String name, int offset, long value, boolean isLong) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (isLong) {
+            bytes.putLong(offset, value);
+        } else {
+            bytes.putInt(offset, (int) value);
+        }
+        Path patched = dir.resolve(name);
+        Files.write(patched, bytes.array());
+        return patched;
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        Path path = create(3);
+        try (RevenueStore store = RevenueStore.open(path)) {
+            assertEquals(3, store.committed());
+            assertEquals(3, store.teams());
+            assertEquals(2, store.scenarios());
+            assertEquals("道奇", store.teamName(1));
+            assertEquals("Mets", store.teamName(2));
+            assertEquals("最多場次", store.scenarioName(1));
+            assertEquals(21, store.home(2, 1));
+            assertEquals(-21, store.away(2, 1));
+            assertEquals(0, store.total(2, 1));
+            assertThrows(IllegalStateException.class,
+                    () -> store.append(new double[2], new double[2]));
+        }
+    }
+
+    // 尚未寫入完成的列不可讀取
+    @Test
+    void partialCommit() throws IOException {
+        Path path = create(1);
+        try (RevenueStore store = RevenueStore.open(path)) {
+            assertEquals(1, store.committed());
+            assertEquals(1, store.home(0, 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> store.home(1, 0));
+        }
+        try (RevenueStore store = RevenueStore.create(dir.resolve("full.bin"), teams(), scenarios())) {
+            assertThrows(IllegalArgumentException.class, () -> store.append(new double[1], new double[2]));
+            for (int t = 0; t < 3; t++) {
+                store.append(new double[2], new double[2]);
+            }
+            assertThrows(IllegalStateException.class, () -> store.append(new double[2], new double[2]));
+        }
+    }
+
+    @Test
+    void rejectsCorruptedHeader() throws IOException {
+        Path path = create(3);
+        byte[] bytes = Files.readAllBytes(path);
+
+        Path truncated = dir.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> RevenueStore.open(truncated));
+
+        Path header = dir.resolve("header.bin");
+        Files.write(header, Arrays.copyOf(bytes, RevenueStore.HEADER_BYTES - 1));
+        assertThrows(IOException.class, () -> RevenueStore.open(header));
+
+        Path magic = patch(path, "magic.bin", 0, 0, false);
+        assertThrows(IOException.class, () -> RevenueStore.open(magic));
+        Path version = patch(path, "version.bin", 4, RevenueStore.VERSION + 1, false);
+        assertThrows(IOException.class, () -> RevenueStore.open(version));
+        // 球隊數加上情境數溢位、已完成列數超出球隊數
+        Path overflow = patch(path, "overflow.bin", 8, Integer.MAX_VALUE, false);
+        assertThrows(IOException.class, () -> RevenueStore.open(overflow));
+        Path committed = patch(path, "committed.bin", RevenueStore.COMMITTED, 4, true);
+        assertThrows(IOException.class, () -> RevenueStore.open(committed));
+    }
+
+    @Test
+    void rejectsCorruptedStringPool() throws IOException {
+        Path path = create(3);
+        // 第二個字串的起點小於第一個
+        Path decreasing = patch(path, "decreasing.bin", RevenueStore.HEADER_BYTES + 4, -1, false);
+        assertThrows(IOException.class, () -> RevenueStore.open(decreasing));
+        // 最後一個結束位置超出字串池
+        Path beyond = patch(path, "beyond.bin", RevenueStore.HEADER_BYTES + 5 * 4, 1 << 20, false);
+        assertThrows(IOException.class, () -> RevenueStore.open(beyond));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesEnumeratorTest {
+    private static final double EPSILON = 1e-12;
+
+    // 三戰兩勝、三場都在高種子主場，高種子單場勝率 0.6
+    @Test
+    void bestOfThreeMatchesHandComputation() {
+        SeriesEnumerator.SeriesOutcomes series = SeriesEnumerator.outcomes(new SeriesFormat("wildcard", 2, "3"), 0.6, 0.2);
+        assertEquals(0.36, series.probability(true, true, 2), EPSILON);         // 0.6 × 0.6
+        assertEquals(0.288, series.probability(true, true, 3), EPSILON);        // 2 × 0.6 × 0.4 × 0.6
+        assertEquals(0.16, series.probability(true, false, 2), EPSILON);        // 0.4 × 0.4
+        assertEquals(0.192, series.probability(true, false, 3), EPSILON);       // 2 × 0.6 × 0.4 × 0.4
+        assertEquals(0.648, series.winProbability(true), EPSILON);
+        assertEquals(0.352, series.winProbability(false), EPSILON);
+    }
+
+    // 七戰四勝、均勢：第 g 場結束的機率為 2 × C(g-1, 3) / 2^g
+    @Test
+    void bestOfSevenEvenMatchup() {
+        SeriesEnumerator.SeriesOutcomes series = SeriesEnumerator.outcomes(new SeriesFormat("worldseries", 4, "2-3-2"), 0.5, 0.5);
+        double[] expected = {0.125, 0.25, 0.3125, 0.3125};
+        for (int g = 4; g <= 7; g++) {
+            assertEquals(expected[g - 4], series.probability(true, true, g) + series.probability(true, false, g), EPSILON);
+        }
+        assertEquals(0.5, series.winProbability(true), EPSILON);
+    }
+
+    // 主客場勝率相同時，高種子晉級機率為 Σ C(3+k, k) p^4 (1-p)^k
+    @Test
+    void bestOfSevenWinProbability() {
+        SeriesEnumerator.SeriesOutcomes series = SeriesEnumerator.outcomes(new SeriesFormat("championship", 4, "2-3-2"), 0.6, 0.6);
+        assertEquals(0.1296 * (1 + 1.6 + 1.6 + 1.28), series.winProbability(true), EPSILON);
+    }
+
+    // 主場分配不同時，高種子多一個主場的賽制晉級機率較高
+    @Test
+    void homePatternMatters() {
+        double balanced = SeriesEnumerator.outcomes(new SeriesFormat("a", 3, "2-2-1"), 0.6, 0.4).winProbability(true);
+        double awayHeavy = SeriesEnumerator.outcomes(new SeriesFormat("b", 3, "1-3-1"), 0.6, 0.4).winProbability(true);
+        assertTrue(balanced > awayHeavy);
+    }
+
+    // 相同內容的賽制即使是不同物件也共用快取，且快取筆數有上限
+    @Test
+    void cacheIsKeyedByValueAndBounded() {
+        SeriesEnumerator.SeriesOutcomes first = SeriesEnumerator.outcomes(new SeriesFormat("division", 3, "2-2-1"), 0.55, 0.45);
+        SeriesEnumerator.SeriesOutcomes second = SeriesEnumerator.outcomes(new SeriesFormat("division", 3, " 2-2-1 "), 0.55, 0.45);
+        assertSame(first, second);
+        SeriesFormat format = new SeriesFormat("division", 3, "2-2-1");
+        for (int i = 0; i < SeriesEnumerator.CACHE_LIMIT + 100; i++) {
+            SeriesEnumerator.outcomes(format, i / (double) (SeriesEnumerator.CACHE_LIMIT + 100), 0.5);
+        }
+        assertTrue(SeriesEnumerator.cacheSize() <= SeriesEnumerator.CACHE_LIMIT);
+    }
+}
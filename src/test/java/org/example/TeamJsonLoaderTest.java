@@ -0,0 +1,80 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeamJsonLoaderTest {
+
+    private static String team(String name, String capacity) {
+        return "{\"name\":\"" + name + "\",\"stadium\":\"S\",\"capacity\":" + capacity
+                + ",\"playoffFillRate\":0.9,\"worldSeriesFillRate\":1.0}";
+    }
+
+    private static TeamJsonLoader.Result load(String text) throws IOException {
+        return TeamJsonLoader.load(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void loadsArrayAndLines() throws IOException {
+        TeamJsonLoader.Result array = load("[" + team("A", "100") + "," + team("B", "200") + "]");
+        assertEquals(2, array.teams.size());
+        assertEquals(200, array.teams.capacity(1));
+        TeamJsonLoader.Result lines = load(team("A", "100") + "\n\n" + team("B", "200") + "\n");
+        assertEquals(2, lines.teams.size());
+        assertTrue(lines.errors.isEmpty());
+    }
+
+    // 負數容量不能在轉為 int 時被截斷成合法值
+    @Test
+    void rejectsNegativeCapacityBeforeNarrowing() throws IOException {
+        TeamJsonLoader.Result result = load(team("A", "-4294967295") + "\n" + team("B", "0") + "\n" + team("C", "10") + "\n");
+        assertEquals(1, result.teams.size());
+        assertEquals("C", result.teams.name(0));
+        assertEquals(2, result.errors.size());
+        assertEquals(1, result.errors.get(0).record);
+        assertEquals(2, result.errors.get(1).record);
+    }
+
+    // 超出 long 範圍的整數只略過該筆，兩種格式都繼續讀取後面的資料
+    @Test
+    void outOfRangeNumberSkipsOnlyThatRecord() throws IOException {
+        String huge = "99999999999999999999";
+        TeamJsonLoader.Result lines = load(team("A", huge) + "\n" + team("B", "10") + "\n");
+        assertEquals(1, lines.teams.size());
+        assertEquals(1, lines.errors.size());
+        assertEquals(1, lines.errors.get(0).record);
+
+        TeamJsonLoader.Result array = load("[" + team("A", huge) + "," + team("B", "10") + "]");
+        assertEquals(1, array.teams.size());
+        assertEquals("B", array.teams.name(0));
+        assertEquals(1, array.errors.size());
+    }
+
+    // 逐行 JSON 檔開頭的 UTF-8 BOM 不影響第一筆資料
+    @Test
+    void ndjsonWithByteOrderMark() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        out.write((team("A", "100") + "\n" + team("B", "200") + "\n").getBytes(StandardCharsets.UTF_8));
+        TeamJsonLoader.Result result = TeamJsonLoader.load(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(result.errors.isEmpty(), () -> result.errors.toString());
+        assertEquals(2, result.teams.size());
+        assertEquals("A", result.teams.name(0));
+    }
+
+    @Test
+    void reportsBadLinesAndKeepsGoodOnes() throws IOException {
+        TeamJsonLoader.Result result = load(team("A", "100") + "\n{oops\n" + team("B", "\"many\"") + "\n"
+                + "{\"name\":\"C\",\"stadium\":\"S\",\"capacity\":5,\"playoffFillRate\":1.5,\"worldSeriesFillRate\":1}\n");
+        assertEquals(1, result.teams.size());
+        assertEquals(3, result.errors.size());
+        assertEquals(4, result.records);
+    }
+}
@@ -0,0 +1,153 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeamSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private static TeamTable sample() {
+        return new TeamTable.Builder()
+                .add("洋基", "洋基球場", 46537, 0.95, 1.0)
+                .add("道奇", "道奇球場", 56000, 0.9, 0.98)
+                .add("Mets", "洋基球場", 41922, 0.0, 1.0)
+                .build();
+    }
+
+    // 修改檔案內容後重新計算 CRC32，模擬「校驗碼正確但資料無效」的快照
+    private static void patch(Path path, int offset, double value) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putDouble(offset, value);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.duplicate().position(TeamSnapshot.HEADER_BYTES));
+        bytes.putLong(24, crc.getValue());
+        Files.write(path, bytes.array());
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        Path path = dir.resolve("teams.bin");
+        TeamSnapshot.write(sample(), path);
+        assertTrue(TeamSnapshot.isSnapshot(path));
+        TeamTable teams = TeamSnapshot.read(path);
+        assertEquals(3, teams.size());
+        assertEquals("道奇", teams.name(1));
+        assertEquals("洋基球場", teams.stadium(2));
+        assertEquals(56000, teams.capacity(1));
+        assertEquals(56000.0, teams.capacityAsDouble(1));
+        assertEquals(0.98, teams.worldSeriesFillRate(1));
+        assertEquals(2, teams.find("Mets"));
+        assertEquals(-1, teams.find("紅襪"));
+    }
+
+    @Test
+    void rejectsCorruptedContent() throws IOException {
+        Path path = dir.resolve("teams.bin");
+        TeamSnapshot.write(sample(), path);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> TeamSnapshot.read(path));
+    }
+
+    @Test
+    void rejectsBadMagicAndLength() throws IOException {
+        Path path = dir.resolve("teams.bin");
+        TeamSnapshot.write(sample(), path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        Path truncated = dir.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> TeamSnapshot.read(truncated));
+
+        bytes[0] = 'X';
+        Path magic = dir.resolve("magic.bin");
+        Files.write(magic, bytes);
+        assertFalse(TeamSnapshot.isSnapshot(magic));
+        assertThrows(IOException.class, () -> TeamSnapshot.read(magic));
+    }
+
+    // CRC32 只防意外損毀，每一列仍需符合 TeamTable.Builder 的規則
+    @Test
+    void rejectsInvalidRows() throws IOException {
+        Path path = dir.resolve("teams.bin");
+        TeamSnapshot.write(sample(), path);
+        patch(path, TeamSnapshot.HEADER_BYTES + 8, 1.5);
+        assertThrows(IOException.class, () -> TeamSnapshot.read(path));
+
+        TeamSnapshot.write(sample(), path);
+        patch(path, TeamSnapshot.HEADER_BYTES + 3 * 8, Double.NaN);
+        assertThrows(IOException.class, () -> TeamSnapshot.read(path));
+    }
+
+    @Test
+    void detectsStaleSource() throws IOException {
+        Path source = dir.resolve("teams.json");
+        Files.writeString(source, "[]");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(1_000_000));
+        Path path = dir.resolve("teams.bin");
+        TeamSnapshot.write(sample(), path, 1_000_000, 2);
+        assertTrue(TeamSnapshot.isCurrent(path, source));
+
+        Files.setLastModifiedTime(source, FileTime.fromMillis(2_000_000));
+        assertFalse(TeamSnapshot.isCurrent(path, source));
+
+        // 未記錄來源的快照一律視為過期
+        TeamSnapshot.write(sample(), path);
+        Files.setLastModifiedTime(source, FileTime.fromMillis(1_000_000));
+        assertFalse(TeamSnapshot.isCurrent(path, source));
+    }
+
+    @Test
+    void configuredTeamsRebuildStaleSnapshot() throws IOException {
+        Path source = dir.resolve("teams.json");
+        Files.writeString(source, "[{\"name\":\"A\",\"stadium\":\"S\",\"capacity\":100,"
+                + "\"playoffFillRate\":0.5,\"worldSeriesFillRate\":0.5}]");
+        Path path = dir.resolve("teams.bin");
+        TeamSnapshot.write(sample(), path);
+
+        Properties props = new Properties();
+        props.setProperty("teams.json.path", source.toString());
+        props.setProperty("teams.snapshot.path", path.toString());
+        TeamTable teams = PostseasonRevenue3.loadConfiguredTeams(props);
+        assertEquals(1, teams.size());
+        assertTrue(TeamSnapshot.isCurrent(path, source));
+        assertEquals("A", TeamSnapshot.read(path).name(0));
+    }
+
+    // 監看模式改讀 JSON 但不寫入快照，避免快照檔的變更再觸發一次重新載入
+    @Test
+    void watcherLeavesStaleSnapshotUntouched() throws IOException {
+        Path source = dir.resolve("teams.json");
+        Files.writeString(source, "[{\"name\":\"A\",\"stadium\":\"S\",\"capacity\":100,"
+                + "\"playoffFillRate\":0.5,\"worldSeriesFillRate\":0.5}]");
+        Path path = dir.resolve("teams.bin");
+        TeamSnapshot.write(sample(), path);
+        byte[] before = Files.readAllBytes(path);
+
+        Properties props = new Properties();
+        props.setProperty("teams.json.path", source.toString());
+        props.setProperty("teams.snapshot.path", path.toString());
+        assertEquals("A", PostseasonRevenue3.loadConfiguredTeams(props, false).name(0));
+        assertArrayEquals(before, Files.readAllBytes(path));
+        assertFalse(TeamSnapshot.isCurrent(path, source));
+    }
+}